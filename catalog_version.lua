@@ -0,0 +1,43 @@
+local redis = require "resty.redis"
+
+local VERSION_KEY = "ms-category:categories:version"
+local VERSION_TTL_SECONDS = 1
+
+-- Function to read the current catalog version that the service bumps after every committed write
+local function read_catalog_version()
+    local red = redis:new()
+    red:set_timeouts(100, 100, 100)
+
+    local ok, err = red:connect("redis", 6379)
+    if not ok then
+        return nil, err
+    end
+
+    local version
+    version, err = red:get(VERSION_KEY)
+    red:set_keepalive(10000, 16)
+    if version == ngx.null then
+        return nil, "version key is missing"
+    end
+    return version, err
+end
+
+-- Step 1: Reuse the version seen by this worker pool within the last second
+local versions = ngx.shared.catalog_version
+local version = versions:get(VERSION_KEY)
+
+-- Step 2: Fall back to Redis and remember the answer briefly
+if not version then
+    local err
+    version, err = read_catalog_version()
+    if version then
+        versions:set(VERSION_KEY, version, VERSION_TTL_SECONDS)
+    else
+        -- Without a version the response is passed through and never stored
+        ngx.log(ngx.WARN, "Unable to read catalog version: ", err)
+    end
+end
+
+if version then
+    ngx.var.catalog_version = version
+end
@@ -0,0 +1,49 @@
+package com.company.mscategory.benchmark;
+
+import com.company.mscategory.dao.entity.CategoryEntity;
+import com.company.mscategory.model.enums.CategoryStatus;
+import com.company.mscategory.model.request.CategoryRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class CategoryCatalogFactory {
+    private static final int ROOT_COUNT = 10;
+
+    private CategoryCatalogFactory() {
+    }
+
+    static List<CategoryEntity> categories(int size, int fanOut) {
+        var now = LocalDateTime.now();
+        var categories = new ArrayList<CategoryEntity>(size);
+        for (long id = 1; id <= size; id++) {
+            categories.add(CategoryEntity.builder()
+                    .id(id)
+                    .baseId(baseIdOf(id, fanOut))
+                    .name("Category " + id)
+                    .picture("category_" + id + ".jpg")
+                    .status(CategoryStatus.ACTIVE)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        return categories;
+    }
+
+    static List<CategoryRequest.CategoryDetail> categoryDetails(int size, int fanOut) {
+        var details = new ArrayList<CategoryRequest.CategoryDetail>(size);
+        for (long id = 1; id <= size; id++) {
+            var detail = new CategoryRequest.CategoryDetail();
+            detail.setName("Category " + id);
+            detail.setBaseId(baseIdOf(id, fanOut));
+            detail.setPicture("category_" + id + ".jpg");
+            details.add(detail);
+        }
+        return details;
+    }
+
+    private static Long baseIdOf(long id, int fanOut) {
+        return id <= ROOT_COUNT ? null : (id - ROOT_COUNT - 1) / fanOut + 1;
+    }
+}
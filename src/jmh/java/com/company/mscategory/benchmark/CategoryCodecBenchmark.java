@@ -0,0 +1,76 @@
+package com.company.mscategory.benchmark;
+
+import com.company.mscategory.dao.entity.CategoryEntity;
+import com.company.mscategory.util.cache.codec.CategoryCodec;
+import io.netty.buffer.ByteBuf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.SerializationCodec;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CategoryCodecBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"10", "1000"})
+    private int fanOut;
+
+    @Param({"serialization", "category"})
+    private String codecName;
+
+    private Codec codec;
+    private List<CategoryEntity> categories;
+    private ByteBuf encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        codec = "category".equals(codecName) ? CategoryCodec.INSTANCE : new SerializationCodec();
+        categories = CategoryCatalogFactory.categories(size, fanOut);
+        encoded = codec.getValueEncoder().encode(categories);
+        System.out.printf("%n%s codec payload for %d categories: %d bytes%n", codecName, size, encoded.readableBytes());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        encoded.release();
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        var buffer = codec.getValueEncoder().encode(categories);
+        var payloadSize = buffer.readableBytes();
+        buffer.release();
+        return payloadSize;
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return codec.getValueDecoder().decode(encoded.duplicate(), null);
+    }
+
+    @Benchmark
+    public Object roundTrip() throws IOException {
+        var buffer = codec.getValueEncoder().encode(categories);
+        try {
+            return codec.getValueDecoder().decode(buffer, null);
+        } finally {
+            buffer.release();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.company.mscategory.benchmark;
+
+import com.company.mscategory.dao.entity.CategoryEntity;
+import com.company.mscategory.model.request.CategoryRequest;
+import com.company.mscategory.model.response.CategorySeparationResult;
+import com.company.mscategory.model.response.CategoryTreeNodeResponse;
+import com.company.mscategory.util.tree.CategorySnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.company.mscategory.mapper.factory.CategoryMapper.CATEGORY_MAPPER;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CategoryMapperBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"2", "10", "1000"})
+    private int fanOut;
+
+    private List<CategoryEntity> categories;
+    private List<CategoryRequest.CategoryDetail> categoryDetails;
+    private CategorySeparationResult separationResult;
+    private CategorySnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        categories = CategoryCatalogFactory.categories(size, fanOut);
+        categoryDetails = CategoryCatalogFactory.categoryDetails(size, fanOut);
+        separationResult = CATEGORY_MAPPER.separateCategories(categoryDetails);
+        snapshot = CategorySnapshot.build(categories);
+    }
+
+    @Benchmark
+    public List<CategoryTreeNodeResponse> buildCategoryTree() {
+        return CATEGORY_MAPPER.buildCategoryTree(categories);
+    }
+
+    @Benchmark
+    public CategorySnapshot buildCategorySnapshot() {
+        return CategorySnapshot.build(categories);
+    }
+
+    @Benchmark
+    public CategoryTreeNodeResponse copySubtree() {
+        return CATEGORY_MAPPER.copySubtree(snapshot, snapshot.indexOf(1L), 3);
+    }
+
+    @Benchmark
+    public CategorySeparationResult separateCategories() {
+        return CATEGORY_MAPPER.separateCategories(categoryDetails);
+    }
+
+    @Benchmark
+    public List<CategoryEntity> mapBaseCategoryDetailToListCategoryEntity() {
+        return CATEGORY_MAPPER.mapBaseCategoryDetailToListCategoryEntity(separationResult.getBaseCategories());
+    }
+
+    @Benchmark
+    public List<CategoryEntity> mapSubCategoryDetailToListCategoryEntity() {
+        return CATEGORY_MAPPER.mapSubCategoryDetailToListCategoryEntity(separationResult.getSubCategories());
+    }
+}
@@ -0,0 +1,76 @@
+package com.company.mscategory.benchmark;
+
+import com.company.mscategory.dao.entity.CategoryEntity;
+import com.company.mscategory.model.enums.CategoryStatus;
+import com.company.mscategory.util.tree.CategorySnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CategorySnapshotFootprintBenchmark {
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    private List<CategoryEntity> categories;
+    private long[] ids;
+    private Long[] baseIds;
+    private String[] names;
+    private String[] pictures;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        categories = CategoryCatalogFactory.categories(size, 10);
+        ids = new long[size];
+        baseIds = new Long[size];
+        names = new String[size];
+        pictures = new String[size];
+        for (int i = 0; i < size; i++) {
+            var category = categories.get(i);
+            ids[i] = category.getId();
+            baseIds[i] = category.getBaseId();
+            names[i] = category.getName();
+            pictures[i] = category.getPicture();
+        }
+    }
+
+    @Benchmark
+    public List<CategoryEntity> fullEntitySnapshot() {
+        var categories = new ArrayList<CategoryEntity>(size);
+        for (int i = 0; i < size; i++) {
+            var timestamp = EPOCH.plusSeconds(i);
+            categories.add(new CategoryEntity(ids[i], names[i], baseIds[i], pictures[i],
+                    "/" + baseIds[i] + "/" + ids[i] + "/", CategoryStatus.ACTIVE, timestamp, timestamp.plusSeconds(1)));
+        }
+        return categories;
+    }
+
+    @Benchmark
+    public List<CategoryEntity> activeProjectionSnapshot() {
+        var categories = new ArrayList<CategoryEntity>(size);
+        for (int i = 0; i < size; i++) {
+            categories.add(new CategoryEntity(ids[i], baseIds[i], names[i], pictures[i], CategoryStatus.ACTIVE));
+        }
+        return categories;
+    }
+
+    @Benchmark
+    public CategorySnapshot primitiveSnapshot() {
+        return CategorySnapshot.build(categories);
+    }
+}
@@ -0,0 +1,59 @@
+package com.company.mscategory.benchmark;
+
+import com.company.mscategory.model.response.CategoryTreeNodeResponse;
+import com.company.mscategory.util.render.CategoryStreamWriter;
+import com.company.mscategory.util.tree.CategorySnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.company.mscategory.mapper.factory.CategoryMapper.CATEGORY_MAPPER;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CategoryTreeSerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"10", "1000"})
+    private int fanOut;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<CategoryTreeNodeResponse> tree;
+    private CategorySnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        snapshot = CategorySnapshot.build(CategoryCatalogFactory.categories(size, fanOut));
+        tree = CATEGORY_MAPPER.buildCategoryTree(snapshot);
+    }
+
+    @Benchmark
+    public byte[] writeTree() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tree);
+    }
+
+    @Benchmark
+    public byte[] writeSnapshot() throws IOException {
+        var outputStream = new ByteArrayOutputStream();
+        try (var generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            CategoryStreamWriter.writeTree(generator, snapshot);
+        }
+        return outputStream.toByteArray();
+    }
+}
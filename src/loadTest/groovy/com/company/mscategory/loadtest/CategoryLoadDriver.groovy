@@ -0,0 +1,128 @@
+package com.company.mscategory.loadtest
+
+import com.fasterxml.jackson.databind.ObjectMapper
+
+import java.net.http.HttpClient
+import java.net.http.HttpRequest
+import java.net.http.HttpResponse
+import java.time.Duration
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE
+
+class CategoryLoadDriver {
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build()
+    private final ObjectMapper objectMapper = new ObjectMapper()
+    private final AtomicLong sequence = new AtomicLong()
+    private final URI baseUri
+    private final LoadTestSettings settings
+    private final List<Long> rootIds = []
+    private final List<Long> childIds = []
+    private final List<Long> disposableRootIds = []
+    private final AtomicInteger deleteCursor = new AtomicInteger()
+
+    CategoryLoadDriver(URI baseUri, LoadTestSettings settings) {
+        this.baseUri = baseUri
+        this.settings = settings
+    }
+
+    void seed() {
+        def categories = []
+        settings.seedRoots.times { root ->
+            categories << [key: "root-" + root, name: "Root " + root, picture: "root-" + root + ".jpg"]
+            settings.seedChildrenPerRoot.times { child ->
+                categories << [key: "child-" + root + "-" + child, parentKey: "root-" + root, name: "Child " + root + " " + child,
+                               picture: "child.jpg"]
+            }
+        }
+        settings.disposableRoots.times { root ->
+            categories << [key: "disposable-" + root, name: "Disposable " + root, picture: "disposable.jpg"]
+        }
+        def response = send(HttpRequest.newBuilder(baseUri.resolve("/v1/categories/import"))
+                .header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString([categories: categories])))
+                .build())
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("Seeding failed with status ${response.statusCode()}: ${response.body()}")
+        }
+        Map<String, Number> ids = objectMapper.readValue(response.body(), Map).ids
+        ids.each { key, id ->
+            if (key.startsWith("root-")) {
+                rootIds << id.longValue()
+            } else if (key.startsWith("child-")) {
+                childIds << id.longValue()
+            } else {
+                disposableRootIds << id.longValue()
+            }
+        }
+    }
+
+    Map<LoadOperation, LatencyRecorder> run(int seconds) {
+        def recorders = new EnumMap<LoadOperation, LatencyRecorder>(LoadOperation)
+        LoadOperation.values().each { recorders.put(it, new LatencyRecorder()) }
+        def deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds)
+        def executor = Executors.newFixedThreadPool(settings.concurrency)
+        try {
+            settings.concurrency.times {
+                executor.submit {
+                    while (System.nanoTime() < deadline) {
+                        def operation = settings.pick(ThreadLocalRandom.current().nextInt(settings.totalWeight()))
+                        def request = buildRequest(operation)
+                        def start = System.nanoTime()
+                        boolean success
+                        try {
+                            success = send(request).statusCode() < 400
+                        } catch (IOException ignored) {
+                            success = false
+                        }
+                        recorders.get(operation).record(System.nanoTime() - start, success)
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown()
+            executor.awaitTermination(seconds + 60, TimeUnit.SECONDS)
+        }
+        recorders
+    }
+
+    private HttpRequest buildRequest(LoadOperation operation) {
+        def random = ThreadLocalRandom.current()
+        switch (operation) {
+            case LoadOperation.LIST:
+                return HttpRequest.newBuilder(baseUri.resolve("/v1/categories")).GET().build()
+            case LoadOperation.CREATE:
+                return jsonRequest("/v1/categories", "POST", [categories: [[
+                        name   : "Created " + sequence.incrementAndGet(),
+                        baseId : rootIds[random.nextInt(rootIds.size())],
+                        picture: "created.jpg"]]])
+            case LoadOperation.UPDATE:
+                return jsonRequest("/v1/categories/" + childIds[random.nextInt(childIds.size())], "PUT", [
+                        name   : "Updated " + sequence.incrementAndGet(),
+                        baseId : rootIds[random.nextInt(rootIds.size())],
+                        picture: "updated.jpg"])
+            case LoadOperation.DELETE:
+                def categoryId = disposableRootIds[Math.floorMod(deleteCursor.getAndIncrement(), disposableRootIds.size())]
+                return HttpRequest.newBuilder(baseUri.resolve("/v1/categories/" + categoryId)).DELETE().build()
+        }
+        throw new IllegalArgumentException("Unsupported operation $operation")
+    }
+
+    private HttpRequest jsonRequest(String path, String method, Object body) {
+        HttpRequest.newBuilder(baseUri.resolve(path))
+                .header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+                .method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build()
+    }
+
+    private HttpResponse<String> send(HttpRequest request) {
+        httpClient.send(request, HttpResponse.BodyHandlers.ofString())
+    }
+}
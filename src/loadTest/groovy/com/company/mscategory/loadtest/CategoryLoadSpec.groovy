@@ -0,0 +1,85 @@
+package com.company.mscategory.loadtest
+
+import io.micrometer.core.instrument.MeterRegistry
+import org.hibernate.SessionFactory
+import org.redisson.api.RedissonClient
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.boot.test.web.server.LocalServerPort
+import org.springframework.test.context.ContextConfiguration
+import spock.lang.Specification
+
+import javax.persistence.EntityManagerFactory
+
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_REQUEST_METRIC
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT
+
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@ContextConfiguration(initializers = LoadTestEnvironment)
+class CategoryLoadSpec extends Specification {
+    @LocalServerPort
+    int port
+
+    @Autowired
+    MeterRegistry meterRegistry
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory
+
+    @Autowired
+    RedissonClient redissonClient
+
+    def "category endpoints must sustain the configured request mix"() {
+        given: "a seeded catalog and a warmed up service"
+        def settings = LoadTestSettings.fromSystemProperties()
+        def driver = new CategoryLoadDriver(URI.create("http://localhost:" + port), settings)
+        driver.seed()
+        driver.run(settings.warmupSeconds)
+
+        and: "database and cache counters measured from the start of the run"
+        def statistics = entityManagerFactory.unwrap(SessionFactory).statistics
+        statistics.clear()
+        def cacheRequestsBefore = cacheRequests()
+
+        when: "the request mix is driven at fixed concurrency"
+        def redisStall = new RedisStall(redissonClient, settings.redisStallMillis, settings.redisStallIntervalSeconds)
+        def start = System.nanoTime()
+        def recorders
+        try {
+            recorders = driver.run(settings.durationSeconds)
+        } finally {
+            redisStall.close()
+        }
+        def elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000d
+        def report = LoadTestReport.build(settings, recorders, elapsedSeconds,
+                subtract(cacheRequests(), cacheRequestsBefore), statistics)
+
+        and: "the report is written and compared with the committed baseline"
+        report.write(settings.reportPath)
+        println report.compareTo(settings.baselinePath)
+        if (settings.updateBaseline) {
+            report.write(settings.baselinePath)
+        }
+
+        then: "every request is answered without an error unless Redis was stalled on purpose"
+        settings.redisStallMillis > 0 || report.totalErrors() == 0
+    }
+
+    private Map<String, Map<String, Long>> cacheRequests() {
+        def requests = new TreeMap<String, Map<String, Long>>()
+        meterRegistry.find(CACHE_REQUEST_METRIC).counters().each { counter ->
+            requests.computeIfAbsent(counter.id.getTag("tier"), { new TreeMap<String, Long>() })
+                    .put(counter.id.getTag("result"), counter.count() as long)
+        }
+        requests
+    }
+
+    private static Map<String, Map<String, Long>> subtract(Map<String, Map<String, Long>> after,
+                                                          Map<String, Map<String, Long>> before) {
+        after.collectEntries { tier, results ->
+            [(tier): results.collectEntries { result, count ->
+                [(result): count - (before.get(tier)?.get(result) ?: 0L)]
+            }]
+        } as Map<String, Map<String, Long>>
+    }
+}
@@ -0,0 +1,48 @@
+package com.company.mscategory.loadtest
+
+import java.util.concurrent.TimeUnit
+
+class LatencyRecorder {
+    private long[] samples = new long[1024]
+    private int count
+    private int errors
+
+    synchronized void record(long nanos, boolean success) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2)
+        }
+        samples[count++] = nanos
+        if (!success) {
+            errors++
+        }
+    }
+
+    synchronized Map<String, Object> summarize(double elapsedSeconds) {
+        def sorted = Arrays.copyOf(samples, count)
+        Arrays.sort(sorted)
+        [
+                requests     : count,
+                errors       : errors,
+                throughputRps: round(count / elapsedSeconds),
+                p50Millis    : percentile(sorted, 0.50),
+                p90Millis    : percentile(sorted, 0.90),
+                p99Millis    : percentile(sorted, 0.99),
+                maxMillis    : count == 0 ? 0 : toMillis(sorted[count - 1])
+        ]
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0
+        }
+        toMillis(sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)])
+    }
+
+    private static double toMillis(long nanos) {
+        round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1))
+    }
+
+    static double round(double value) {
+        Math.round(value * 100) / 100d
+    }
+}
@@ -0,0 +1,5 @@
+package com.company.mscategory.loadtest
+
+enum LoadOperation {
+    LIST, CREATE, UPDATE, DELETE
+}
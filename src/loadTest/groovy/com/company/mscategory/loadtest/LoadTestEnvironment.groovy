@@ -0,0 +1,55 @@
+package com.company.mscategory.loadtest
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres
+import org.springframework.boot.test.util.TestPropertyValues
+import org.springframework.context.ApplicationContextInitializer
+import org.springframework.context.ConfigurableApplicationContext
+import redis.embedded.RedisServer
+
+import java.nio.file.Files
+
+class LoadTestEnvironment implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+    private static EmbeddedPostgres postgres
+    private static RedisServer redis
+    private static int redisPort
+
+    @Override
+    void initialize(ConfigurableApplicationContext context) {
+        start()
+        def settings = LoadTestSettings.fromSystemProperties()
+        def snapshotPath = Files.createTempDirectory("ms-category-load-test").resolve("categories.snapshot")
+        def properties = [
+                "spring.datasource.url=${postgres.getJdbcUrl('postgres', 'postgres')}&reWriteBatchedInserts=true",
+                "spring.datasource.username=postgres",
+                "spring.datasource.password=postgres",
+                "spring.redis.host=localhost",
+                "spring.redis.port=$redisPort",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.show_sql=false",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "ms-category.cache.snapshot-path=$snapshotPath",
+                "ms-category.read-path.async=${settings.readPath == 'async'}"
+        ]
+        if (settings.tomcatThreads > 0) {
+            properties << "server.tomcat.threads.max=$settings.tomcatThreads"
+        }
+        TestPropertyValues.of(properties.collect { it.toString() }).applyTo(context)
+    }
+
+    private static synchronized void start() {
+        if (postgres != null) {
+            return
+        }
+        postgres = EmbeddedPostgres.start()
+        def socket = new ServerSocket(0)
+        redisPort = socket.localPort
+        socket.close()
+        redis = new RedisServer(redisPort)
+        redis.start()
+        Runtime.runtime.addShutdownHook(new Thread({
+            redis.stop()
+            postgres.close()
+        }))
+    }
+}
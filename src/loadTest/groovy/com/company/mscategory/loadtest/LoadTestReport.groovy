@@ -0,0 +1,99 @@
+package com.company.mscategory.loadtest
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.SerializationFeature
+import org.hibernate.stat.Statistics
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_RESULT_FALLBACK
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_RESULT_HIT
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_RESULT_MISS
+
+class LoadTestReport {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+    private static final List<String> COMPARED_FIELDS = ["throughputRps", "p50Millis", "p99Millis"]
+
+    final Map<String, Object> content
+
+    private LoadTestReport(Map<String, Object> content) {
+        this.content = content
+    }
+
+    static LoadTestReport build(LoadTestSettings settings, Map<LoadOperation, LatencyRecorder> recorders, double elapsedSeconds,
+                                Map<String, Map<String, Long>> cacheRequests, Statistics statistics) {
+        def operations = recorders.collectEntries { operation, recorder ->
+            [(operation.name().toLowerCase()): recorder.summarize(elapsedSeconds)]
+        }
+        long requests = operations.values().sum(0L) { it.requests } as long
+        long errors = operations.values().sum(0L) { it.errors } as long
+        new LoadTestReport([
+                settings  : settings.describe(),
+                operations: operations,
+                total     : [
+                        requests     : requests,
+                        errors       : errors,
+                        throughputRps: LatencyRecorder.round(requests / elapsedSeconds)
+                ],
+                cache     : summarizeCache(cacheRequests),
+                database  : [
+                        statements           : statistics.prepareStatementCount,
+                        statementsPerRequest : LatencyRecorder.round(requests == 0 ? 0 : statistics.prepareStatementCount / (double) requests),
+                        transactions         : statistics.transactionCount,
+                        entityLoads          : statistics.entityLoadCount
+                ]
+        ])
+    }
+
+    long totalErrors() {
+        content.total.errors as long
+    }
+
+    void write(Path path) {
+        Files.createDirectories(path.toAbsolutePath().parent)
+        OBJECT_MAPPER.writeValue(path.toFile(), content)
+    }
+
+    String compareTo(Path baselinePath) {
+        if (!Files.exists(baselinePath)) {
+            return "No baseline at $baselinePath, run with -PloadTestUpdateBaseline to record one"
+        }
+        Map<String, Object> baseline = OBJECT_MAPPER.readValue(baselinePath.toFile(), Map)
+        def lines = ["Compared with $baselinePath:".toString()]
+        content.operations.each { String operation, Map<String, Object> current ->
+            def previous = baseline.operations?.get(operation)
+            if (previous == null) {
+                return
+            }
+            def changes = COMPARED_FIELDS.collect { field -> "$field ${previous[field]} -> ${current[field]} (${change(previous[field], current[field])})" }
+            lines << "  $operation: ${changes.join(', ')}".toString()
+        }
+        lines << "  cache hit ratio ${baseline.cache?.hitRatio} -> ${content.cache.hitRatio}".toString()
+        lines << "  statements per request ${baseline.database?.statementsPerRequest} -> ${content.database.statementsPerRequest}".toString()
+        lines.join(System.lineSeparator())
+    }
+
+    private static Map<String, Object> summarizeCache(Map<String, Map<String, Long>> cacheRequests) {
+        long hits = cacheRequests.values().sum(0L) { it.getOrDefault(CACHE_RESULT_HIT, 0L) } as long
+        long misses = cacheRequests.values().sum(0L) { it.getOrDefault(CACHE_RESULT_MISS, 0L) } as long
+        long fallbacks = cacheRequests.values().sum(0L) { it.getOrDefault(CACHE_RESULT_FALLBACK, 0L) } as long
+        [
+                hits     : hits,
+                misses   : misses,
+                fallbacks: fallbacks,
+                hitRatio : LatencyRecorder.round(hits + misses == 0 ? 0 : hits / (double) (hits + misses)),
+                byTier   : cacheRequests
+        ]
+    }
+
+    private static String change(Object previous, Object current) {
+        if (!(previous instanceof Number) || (previous as double) == 0d) {
+            return "n/a"
+        }
+        def percent = ((current as double) - (previous as double)) * 100d / (previous as double)
+        String.format("%+.1f%%", percent)
+    }
+}
@@ -0,0 +1,92 @@
+package com.company.mscategory.loadtest
+
+import java.nio.file.Path
+import java.nio.file.Paths
+
+class LoadTestSettings {
+    static final String DEFAULT_MIX = "list:85,create:5,update:7,delete:3"
+    static final List<String> READ_PATHS = ["async", "blocking"]
+
+    int concurrency
+    int warmupSeconds
+    int durationSeconds
+    int seedRoots
+    int seedChildrenPerRoot
+    int disposableRoots
+    Map<LoadOperation, Integer> mix
+    Path reportPath
+    Path baselinePath
+    boolean updateBaseline
+    String readPath
+    int redisStallMillis
+    int redisStallIntervalSeconds
+    int tomcatThreads
+
+    static LoadTestSettings fromSystemProperties() {
+        new LoadTestSettings(
+                concurrency: Integer.getInteger("loadTestConcurrency", 16),
+                warmupSeconds: Integer.getInteger("loadTestWarmup", 10),
+                durationSeconds: Integer.getInteger("loadTestDuration", 60),
+                seedRoots: Integer.getInteger("loadTestSeedRoots", 100),
+                seedChildrenPerRoot: Integer.getInteger("loadTestSeedChildren", 50),
+                disposableRoots: Integer.getInteger("loadTestDisposableRoots", 2000),
+                mix: parseMix(System.getProperty("loadTestMix", DEFAULT_MIX)),
+                reportPath: Paths.get(System.getProperty("loadTestReport", "build/load-test/report.json")),
+                baselinePath: Paths.get(System.getProperty("loadTestBaseline", "load-test/baseline.json")),
+                updateBaseline: Boolean.getBoolean("loadTestUpdateBaseline"),
+                readPath: parseReadPath(System.getProperty("loadTestReadPath", "async")),
+                redisStallMillis: Integer.getInteger("loadTestRedisStallMillis", 0),
+                redisStallIntervalSeconds: Integer.getInteger("loadTestRedisStallInterval", 10),
+                tomcatThreads: Integer.getInteger("loadTestTomcatThreads", 0))
+    }
+
+    static String parseReadPath(String readPath) {
+        if (!READ_PATHS.contains(readPath)) {
+            throw new IllegalArgumentException("Load test read path must be one of $READ_PATHS: $readPath")
+        }
+        readPath
+    }
+
+    static Map<LoadOperation, Integer> parseMix(String mix) {
+        def weights = new EnumMap<LoadOperation, Integer>(LoadOperation)
+        mix.split(",").each { entry ->
+            def parts = entry.trim().split(":")
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid load test mix entry: $entry")
+            }
+            weights.put(LoadOperation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()))
+        }
+        if (weights.values().sum(0) <= 0) {
+            throw new IllegalArgumentException("Load test mix must have a positive total weight: $mix")
+        }
+        weights
+    }
+
+    LoadOperation pick(int roll) {
+        def remaining = roll
+        for (def entry : mix.entrySet()) {
+            remaining -= entry.value
+            if (remaining < 0) {
+                return entry.key
+            }
+        }
+        throw new IllegalStateException("Roll $roll is outside the mix weights")
+    }
+
+    int totalWeight() {
+        mix.values().sum(0) as int
+    }
+
+    Map<String, Object> describe() {
+        [
+                concurrency        : concurrency,
+                durationSeconds    : durationSeconds,
+                seedRoots          : seedRoots,
+                seedChildrenPerRoot: seedChildrenPerRoot,
+                readPath           : readPath,
+                redisStallMillis   : redisStallMillis,
+                tomcatThreads      : tomcatThreads,
+                mix                : mix.collectEntries { key, value -> [(key.name().toLowerCase()): value] }
+        ]
+    }
+}
@@ -0,0 +1,43 @@
+package com.company.mscategory.loadtest
+
+import org.redisson.api.RScript
+import org.redisson.api.RedissonClient
+import org.redisson.client.codec.StringCodec
+
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+class RedisStall implements Closeable {
+    private static final String BUSY_LOOP = """
+            local start = redis.call('TIME')
+            local deadline = tonumber(start[1]) * 1000000 + tonumber(start[2]) + tonumber(ARGV[1]) * 1000
+            while true do
+                local now = redis.call('TIME')
+                if tonumber(now[1]) * 1000000 + tonumber(now[2]) >= deadline then
+                    return 1
+                end
+            end
+            """
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()
+
+    RedisStall(RedissonClient redissonClient, int stallMillis, int intervalSeconds) {
+        if (stallMillis <= 0) {
+            return
+        }
+        def script = redissonClient.getScript(StringCodec.INSTANCE)
+        scheduler.scheduleWithFixedDelay({
+            try {
+                script.eval(RScript.Mode.READ_ONLY, BUSY_LOOP, RScript.ReturnType.INTEGER, [], stallMillis.toString())
+            } catch (RuntimeException ex) {
+                println "Redis stall failed: $ex.message"
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS)
+    }
+
+    @Override
+    void close() {
+        scheduler.shutdownNow()
+    }
+}
@@ -3,11 +3,11 @@ package com.company.mscategory.aspect;
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 
+import static java.lang.annotation.ElementType.METHOD;
 import static java.lang.annotation.ElementType.TYPE;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
-@Target({TYPE})
+@Target({TYPE, METHOD})
 @Retention(RUNTIME)
-public @interface Log {
+public @interface Measured {
 }
-
@@ -0,0 +1,50 @@
+package com.company.mscategory.aspect;
+
+import com.company.mscategory.util.metrics.CategoryMetrics;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Aspect
+@Component
+public class MetricsAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsAspect.class);
+
+    private final CategoryMetrics categoryMetrics;
+    private final double argumentLogSampleRate;
+
+    public MetricsAspect(CategoryMetrics categoryMetrics,
+                         @Value("${ms-category.metrics.argument-log-sample-rate:0}") double argumentLogSampleRate) {
+        this.categoryMetrics = categoryMetrics;
+        this.argumentLogSampleRate = argumentLogSampleRate;
+    }
+
+    @Around("@within(com.company.mscategory.aspect.Measured) || @annotation(com.company.mscategory.aspect.Measured)")
+    public Object measureMethodExecution(ProceedingJoinPoint joinPoint) throws Throwable {
+        var className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        var methodName = joinPoint.getSignature().getName();
+        if (argumentLogSampleRate > 0 && log.isDebugEnabled()
+                && ThreadLocalRandom.current().nextDouble() < argumentLogSampleRate) {
+            log.debug("Sampled call of method: {} in class: {} with arguments: {}", methodName, className,
+                    Arrays.toString(joinPoint.getArgs()));
+        }
+        var start = System.nanoTime();
+        var outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            categoryMetrics.recordServiceCall(className, methodName, outcome, System.nanoTime() - start);
+        }
+    }
+}
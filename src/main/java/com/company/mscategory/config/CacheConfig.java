@@ -1,22 +1,48 @@
 package com.company.mscategory.config;
 
 import org.redisson.Redisson;
+import com.company.mscategory.util.cache.codec.CategoryCodec;
+import com.company.mscategory.util.metrics.CategoryMetrics;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.codec.CompositeCodec;
 import org.redisson.codec.SerializationCodec;
 import org.redisson.config.Config;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 @Configuration
 public class CacheConfig {
 
+    @Lazy
     @Bean
-    public RedissonClient redissonClient() {
+    public RedissonClient redissonClient(@Value("${spring.redis.host:localhost}") String host,
+                                         @Value("${spring.redis.port:6379}") int port) {
         var config = new Config();
         config.setCodec(new SerializationCodec())
                 .useSingleServer()
-                .setAddress("redis://localhost:6379");
+                .setAddress("redis://" + host + ":" + port);
         return Redisson.create(config);
     }
+
+    @Bean
+    public Codec categoryMapCodec(CategoryMetrics categoryMetrics) {
+        return new CompositeCodec(LongCodec.INSTANCE, new CategoryCodec(categoryMetrics));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService cacheRefreshExecutor() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "category-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 }
 
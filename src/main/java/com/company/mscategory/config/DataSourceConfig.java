@@ -0,0 +1,63 @@
+package com.company.mscategory.config;
+
+import com.company.mscategory.util.datasource.ReadWriteRoutingDataSource;
+import com.company.mscategory.util.metrics.CategoryMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+
+import static com.company.mscategory.util.datasource.DataSourceConstraints.PRIMARY_ROUTE;
+import static com.company.mscategory.util.datasource.DataSourceConstraints.REPLICA_ROUTE_PREFIX;
+
+@Configuration
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry) {
+        var primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName(PRIMARY_ROUTE);
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return primary;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                        RoutingDataSourceProperties routingProperties,
+                                                        MeterRegistry meterRegistry,
+                                                        CategoryMetrics categoryMetrics) {
+        var metricsTrackerFactory = new MicrometerMetricsTrackerFactory(meterRegistry);
+        var replicas = new LinkedHashMap<String, DataSource>();
+        for (int i = 0; i < routingProperties.getReplicas().size(); i++) {
+            var replicaProperties = routingProperties.getReplicas().get(i);
+            var replica = new HikariDataSource();
+            replica.setPoolName(REPLICA_ROUTE_PREFIX + i);
+            replica.setJdbcUrl(replicaProperties.getUrl());
+            replica.setUsername(replicaProperties.getUsername());
+            replica.setPassword(replicaProperties.getPassword());
+            replica.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(metricsTrackerFactory);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, routingProperties.getReadYourWritesWindow(),
+                routingProperties.getMaxReplicaLag(), routingProperties.getReplicaLagQuery(), categoryMetrics);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,18 @@
+package com.company.mscategory.config;
+
+import com.company.mscategory.util.metrics.CategoryMetrics;
+import com.company.mscategory.util.read.CategoryReadExecutor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ReadPathProperties.class)
+public class ReadPathConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public CategoryReadExecutor categoryReadExecutor(ReadPathProperties readPathProperties, CategoryMetrics categoryMetrics) {
+        return new CategoryReadExecutor(readPathProperties.isAsync(), readPathProperties.getPoolSize(),
+                readPathProperties.getQueueCapacity(), readPathProperties.getTimeout(), categoryMetrics);
+    }
+}
@@ -0,0 +1,15 @@
+package com.company.mscategory.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "ms-category.read-path")
+public class ReadPathProperties {
+    private boolean async = true;
+    private int poolSize = 32;
+    private int queueCapacity = 500;
+    private Duration timeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,27 @@
+package com.company.mscategory.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.company.mscategory.util.datasource.DataSourceConstraints.REPLICA_LAG_QUERY;
+
+@Data
+@ConfigurationProperties(prefix = "ms-category.datasource")
+public class RoutingDataSourceProperties {
+    private List<Replica> replicas = new ArrayList<>();
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    private Duration maxReplicaLag = Duration.ofSeconds(2);
+    private String replicaLagQuery = REPLICA_LAG_QUERY;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -1,35 +1,136 @@
 package com.company.mscategory.controller;
 
+import com.company.mscategory.model.request.CategoryBatchUpdateRequest;
+import com.company.mscategory.model.request.CategoryImportRequest;
 import com.company.mscategory.model.request.CategoryRequest;
 import com.company.mscategory.model.request.CategoryUpdateRequest;
+import com.company.mscategory.model.response.CategoryChangesResponse;
+import com.company.mscategory.model.response.CategoryImportResponse;
+import com.company.mscategory.model.response.CategorySearchResponse;
 import com.company.mscategory.model.response.CategoryTreeNodeResponse;
+import com.company.mscategory.service.abstracts.CategoryChangeService;
+import com.company.mscategory.service.abstracts.CategoryImportService;
 import com.company.mscategory.service.abstracts.CategoryService;
+import com.company.mscategory.util.imports.CategoryCsvReader;
+import com.company.mscategory.util.read.CategoryReadExecutor;
+import com.company.mscategory.util.render.RenderFormat;
+import com.company.mscategory.util.render.RenderUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.validation.Valid;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_UNKNOWN_VERSION;
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.AGE;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.VARY;
+import static org.springframework.http.HttpHeaders.WARNING;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.MULTIPART_FORM_DATA_VALUE;
 
 @RestController
 @RequestMapping("v1/categories")
 @RequiredArgsConstructor
 public class CategoryController {
+    private static final String CATALOG_SNAPSHOT_TIME = "X-Catalog-Snapshot-Time";
+    private static final String CATALOG_VERSION = "X-Catalog-Version";
+    private static final Duration EDGE_CACHE_MAX_AGE = Duration.ofDays(1);
+    private static final String STALE_RESPONSE_WARNING = "110 - \"Response is Stale\"";
 
     private final CategoryService categoryService;
+    private final CategoryImportService categoryImportService;
+    private final CategoryChangeService categoryChangeService;
+    private final CategoryReadExecutor categoryReadExecutor;
 
     @GetMapping
-    public List<CategoryTreeNodeResponse> getCategories() {
-        return categoryService.getCategories();
+    public CompletableFuture<ResponseEntity<byte[]>> getCategories(
+            @RequestHeader(value = ACCEPT, required = false) String accept,
+            @RequestHeader(value = ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        var format = RenderFormat.fromAccept(accept);
+        var gzipAccepted = RenderUtil.acceptsGzip(acceptEncoding);
+        return categoryReadExecutor.read(() -> renderCategories(format, gzipAccepted));
+    }
+
+    @GetMapping(params = "format=stream")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> streamCategories() {
+        return categoryReadExecutor.read(() -> {
+            var categoryWriter = categoryService.prepareCategoryTree();
+            return ResponseEntity.ok()
+                    .contentType(APPLICATION_JSON)
+                    .body(categoryWriter::write);
+        });
+    }
+
+    @GetMapping(params = "format=ndjson")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> streamCategoriesAsNdjson() {
+        return categoryReadExecutor.read(() -> {
+            var categoryWriter = categoryService.prepareCategoriesAsNdjson();
+            return ResponseEntity.ok()
+                    .contentType(APPLICATION_NDJSON)
+                    .body(categoryWriter::write);
+        });
+    }
+
+    @GetMapping("/changes")
+    public CategoryChangesResponse getChanges(@RequestParam Long since,
+                                              @RequestParam(required = false) Integer limit) {
+        return categoryChangeService.getChanges(since, limit);
+    }
+
+    @GetMapping("/search")
+    public CompletableFuture<List<CategorySearchResponse>> searchCategories(@RequestParam("q") String query,
+                                                                            @RequestParam(required = false) Integer limit) {
+        return categoryReadExecutor.read(() -> categoryService.searchCategories(query, limit));
+    }
+
+    @GetMapping("/{categoryId}")
+    public CompletableFuture<CategoryTreeNodeResponse> getCategory(@PathVariable Long categoryId) {
+        return categoryReadExecutor.read(() -> categoryService.getCategory(categoryId));
+    }
+
+    @GetMapping("/{categoryId}/tree")
+    public CompletableFuture<CategoryTreeNodeResponse> getCategoryTree(@PathVariable Long categoryId,
+                                                                       @RequestParam(required = false) Integer depth) {
+        return categoryReadExecutor.read(() -> categoryService.getCategoryTree(categoryId, depth));
+    }
+
+    @GetMapping("/{categoryId}/path")
+    public CompletableFuture<List<CategoryTreeNodeResponse>> getCategoryPath(@PathVariable Long categoryId) {
+        return categoryReadExecutor.read(() -> categoryService.getCategoryPath(categoryId));
+    }
+
+    @GetMapping("/{categoryId}/descendants")
+    public CompletableFuture<List<Long>> getDescendantIds(@PathVariable Long categoryId) {
+        return categoryReadExecutor.read(() -> categoryService.getDescendantIds(categoryId));
     }
 
     @PostMapping
@@ -38,17 +139,58 @@ public class CategoryController {
         categoryService.createCategory(categoryRequest);
     }
 
+    @PostMapping(value = "/import", consumes = APPLICATION_JSON_VALUE)
+    @ResponseStatus(CREATED)
+    public CategoryImportResponse importCategories(@Valid @RequestBody CategoryImportRequest categoryImportRequest) {
+        return categoryImportService.importCategories(categoryImportRequest.getCategories());
+    }
+
+    @PostMapping(value = "/import", consumes = MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(CREATED)
+    public CategoryImportResponse importCategoriesFromCsv(@RequestParam("file") MultipartFile file) throws IOException {
+        try (var reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            return categoryImportService.importCategories(CategoryCsvReader.readImportDetails(reader));
+        }
+    }
+
     @PutMapping("/{categoryId}")
     @ResponseStatus(NO_CONTENT)
     public void updateCategory(@PathVariable Long categoryId, @RequestBody CategoryUpdateRequest categoryUpdateRequest) {
         categoryService.updateCategory(categoryId, categoryUpdateRequest);
     }
 
+    @PatchMapping
+    @ResponseStatus(NO_CONTENT)
+    public void updateCategories(@Valid @RequestBody CategoryBatchUpdateRequest categoryBatchUpdateRequest) {
+        categoryService.updateCategories(categoryBatchUpdateRequest.getCategories());
+    }
+
     @DeleteMapping("/{categoryId}")
     @ResponseStatus(NO_CONTENT)
     public void deleteCategory(@PathVariable Long categoryId) {
         categoryService.deleteCategory(categoryId);
     }
 
+    private ResponseEntity<byte[]> renderCategories(RenderFormat format, boolean gzipAccepted) {
+        var renderedTree = categoryService.getRenderedCategories(format);
+        var etag = gzipAccepted ? renderedTree.getGzipEtag() : renderedTree.getEtag();
+        var response = ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(format.getMediaType())
+                .header(VARY, ACCEPT, ACCEPT_ENCODING);
+        var degradedSnapshotTime = renderedTree.getDegradedSnapshotTime();
+        if (degradedSnapshotTime != null) {
+            response.header(WARNING, STALE_RESPONSE_WARNING)
+                    .header(CATALOG_SNAPSHOT_TIME, degradedSnapshotTime.toString())
+                    .header(AGE, String.valueOf(Math.max(0, Duration.between(degradedSnapshotTime, Instant.now()).toSeconds())))
+                    .cacheControl(CacheControl.noCache());
+        } else if (renderedTree.getCatalogVersion() != CACHE_UNKNOWN_VERSION) {
+            response.header(CATALOG_VERSION, String.valueOf(renderedTree.getCatalogVersion()))
+                    .cacheControl(CacheControl.maxAge(Duration.ZERO).cachePublic().sMaxAge(EDGE_CACHE_MAX_AGE));
+        }
+        if (gzipAccepted) {
+            return response.header(CONTENT_ENCODING, "gzip").body(renderedTree.getGzipBody());
+        }
+        return response.body(renderedTree.getBody());
+    }
 }
-
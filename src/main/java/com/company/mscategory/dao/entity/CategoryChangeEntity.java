@@ -0,0 +1,47 @@
+package com.company.mscategory.dao.entity;
+
+import com.company.mscategory.model.enums.CategoryChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.Entity;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+import static javax.persistence.EnumType.STRING;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "version")
+@Builder
+@Entity
+@Table(name = "category_changes")
+public class CategoryChangeEntity implements Persistable<Long> {
+    @Id
+    private Long version;
+    private Long categoryId;
+    @Enumerated(value = STRING)
+    private CategoryChangeType changeType;
+    @CreationTimestamp
+    private LocalDateTime changedAt;
+
+    @Override
+    public Long getId() {
+        return version;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
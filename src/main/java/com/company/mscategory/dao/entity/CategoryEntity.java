@@ -9,6 +9,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import javax.persistence.Entity;
@@ -21,7 +23,7 @@ import java.io.Serializable;
 import java.time.LocalDateTime;
 
 import static javax.persistence.EnumType.STRING;
-import static javax.persistence.GenerationType.IDENTITY;
+import static javax.persistence.GenerationType.SEQUENCE;
 
 
 @Getter
@@ -36,17 +38,29 @@ public class CategoryEntity implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = "categories_id_seq")
+    @GenericGenerator(name = "categories_id_seq", strategy = "com.company.mscategory.dao.entity.CategoryIdGenerator",
+            parameters = {@Parameter(name = "sequence_name", value = "categories_id_seq"),
+                    @Parameter(name = "increment_size", value = "50")})
     private Long id;
     private String name;
     private Long baseId;
     private String picture;
+    private String path;
     @Enumerated(value = STRING)
     private CategoryStatus status;
     @CreationTimestamp
     LocalDateTime createdAt;
     @UpdateTimestamp
     LocalDateTime updatedAt;
+
+    public CategoryEntity(Long id, Long baseId, String name, String picture, CategoryStatus status) {
+        this.id = id;
+        this.baseId = baseId;
+        this.name = name;
+        this.picture = picture;
+        this.status = status;
+    }
 }
 
 
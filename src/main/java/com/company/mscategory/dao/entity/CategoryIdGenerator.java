@@ -0,0 +1,15 @@
+package com.company.mscategory.dao.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.io.Serializable;
+
+public class CategoryIdGenerator extends SequenceStyleGenerator {
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        var id = ((CategoryEntity) object).getId();
+        return id != null ? id : super.generate(session, object);
+    }
+}
@@ -0,0 +1,40 @@
+package com.company.mscategory.dao.repository;
+
+import com.company.mscategory.dao.entity.CategoryChangeEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CategoryChangeRepository extends JpaRepository<CategoryChangeEntity, Long> {
+    @Query("select c from CategoryChangeEntity c where c.version > :since " +
+            "and c.changeType <> com.company.mscategory.model.enums.CategoryChangeType.COMPACTED order by c.version")
+    List<CategoryChangeEntity> findChangesSince(Long since, Pageable pageable);
+
+    @Query("select max(c.version) from CategoryChangeEntity c")
+    Long findLatestVersion();
+
+    @Query("select max(c.version) from CategoryChangeEntity c " +
+            "where c.changeType = com.company.mscategory.model.enums.CategoryChangeType.COMPACTED")
+    Long findCompactedVersion();
+
+    @Query("select max(c.version) from CategoryChangeEntity c where c.changedAt < :cutoff " +
+            "and c.version < (select max(l.version) from CategoryChangeEntity l)")
+    Long findLastVersionBefore(LocalDateTime cutoff);
+
+    @Query(value = "UPDATE category_change_counter SET version = version + :count WHERE id = 1 RETURNING version",
+            nativeQuery = true)
+    Long reserveVersions(int count);
+
+    @Modifying
+    @Query("delete from CategoryChangeEntity c where c.version <= :version")
+    int deleteUpToVersion(Long version);
+
+    @Modifying
+    @Query(value = "INSERT INTO category_changes (version, change_type, changed_at) VALUES (:version, 'COMPACTED', now()) " +
+            "ON CONFLICT (version) DO NOTHING", nativeQuery = true)
+    int insertCompactionMarker(Long version);
+}
@@ -0,0 +1,8 @@
+package com.company.mscategory.dao.repository;
+
+import com.company.mscategory.dao.entity.CategoryEntity;
+
+public interface CategoryInsertRepository {
+    Long reserveId(CategoryEntity categoryEntity);
+    void insert(CategoryEntity categoryEntity);
+}
@@ -0,0 +1,25 @@
+package com.company.mscategory.dao.repository;
+
+import com.company.mscategory.dao.entity.CategoryEntity;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import javax.persistence.EntityManager;
+
+@RequiredArgsConstructor
+public class CategoryInsertRepositoryImpl implements CategoryInsertRepository {
+    private final EntityManager entityManager;
+
+    @Override
+    public Long reserveId(CategoryEntity categoryEntity) {
+        var session = entityManager.unwrap(SessionImplementor.class);
+        return (Long) session.getEntityPersister(null, categoryEntity).getIdentifierGenerator()
+                .generate(session, categoryEntity);
+    }
+
+    @Override
+    public void insert(CategoryEntity categoryEntity) {
+        entityManager.unwrap(Session.class).save(categoryEntity);
+    }
+}
@@ -2,9 +2,39 @@ package com.company.mscategory.dao.repository;
 
 import com.company.mscategory.dao.entity.CategoryEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
-public interface CategoryRepository extends JpaRepository<CategoryEntity, Long> {
+public interface CategoryRepository extends JpaRepository<CategoryEntity, Long>, CategoryInsertRepository {
     List<CategoryEntity> findByBaseId(Long categoryId);
-}
\ No newline at end of file
+
+    @Query("select new com.company.mscategory.dao.entity.CategoryEntity(c.id, c.baseId, c.name, c.picture, c.status) " +
+            "from CategoryEntity c where c.status = com.company.mscategory.model.enums.CategoryStatus.ACTIVE")
+    List<CategoryEntity> findAllActive();
+
+    @Query("select count(c) from CategoryEntity c where c.status = com.company.mscategory.model.enums.CategoryStatus.ACTIVE")
+    long countActive();
+
+    @Query(value = "WITH RECURSIVE subtree AS (" +
+            "SELECT id FROM categories WHERE id = :categoryId AND base_id IS NULL " +
+            "UNION SELECT c.id FROM categories c JOIN subtree s ON c.base_id = s.id) " +
+            "UPDATE categories SET status = 'DELETED', updated_at = now() " +
+            "WHERE id IN (SELECT id FROM subtree) AND (status IS NULL OR status <> 'DELETED') " +
+            "RETURNING id", nativeQuery = true)
+    List<Number> softDeleteSubtree(Long categoryId);
+
+    @Modifying
+    @Query(value = "UPDATE categories SET path = :newPath || substring(path from length(:oldPath) + 1) " +
+            "WHERE path LIKE :oldPath || '%'", nativeQuery = true)
+    int movePath(String oldPath, String newPath);
+
+    @Modifying
+    @Query(value = "UPDATE categories c SET path = m.new_path || substring(c.path from length(m.old_path) + 1) " +
+            "FROM (SELECT DISTINCT ON (s.id) s.id, moves.old_path, moves.new_path FROM categories s " +
+            "JOIN unnest(string_to_array(:oldPaths, ','), string_to_array(:newPaths, ',')) AS moves(old_path, new_path) " +
+            "ON s.path LIKE moves.old_path || '%' ORDER BY s.id, length(moves.old_path) DESC) m " +
+            "WHERE c.id = m.id", nativeQuery = true)
+    int movePaths(String oldPaths, String newPaths);
+}
@@ -0,0 +1,13 @@
+package com.company.mscategory.exception;
+
+import lombok.Getter;
+
+@Getter
+public class CategoryCycleException extends RuntimeException {
+    private final String code;
+
+    public CategoryCycleException(String message, String code) {
+        super(message);
+        this.code = code;
+    }
+}
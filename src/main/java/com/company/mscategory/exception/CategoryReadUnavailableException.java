@@ -0,0 +1,18 @@
+package com.company.mscategory.exception;
+
+import lombok.Getter;
+
+@Getter
+public class CategoryReadUnavailableException extends RuntimeException {
+    private final String code;
+
+    public CategoryReadUnavailableException(String message, String code) {
+        super(message);
+        this.code = code;
+    }
+
+    public CategoryReadUnavailableException(String message, String code, Throwable cause) {
+        super(message, cause);
+        this.code = code;
+    }
+}
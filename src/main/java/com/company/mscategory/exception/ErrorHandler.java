@@ -16,6 +16,7 @@ import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.METHOD_NOT_ALLOWED;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 @Slf4j
 @RestControllerAdvice
@@ -42,6 +43,34 @@ public class ErrorHandler {
         return new ExceptionResponse(ex.getCode(), ex.getMessage());
     }
 
+    @ExceptionHandler(CategoryCycleException.class)
+    @ResponseStatus(BAD_REQUEST)
+    public ExceptionResponse handle(CategoryCycleException ex) {
+        log.error("CategoryCycleException: ", ex);
+        return new ExceptionResponse(ex.getCode(), ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCategoryImportException.class)
+    @ResponseStatus(BAD_REQUEST)
+    public ExceptionResponse handle(InvalidCategoryImportException ex) {
+        log.error("InvalidCategoryImportException: ", ex);
+        return new ExceptionResponse(ex.getCode(), ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCategoryBatchException.class)
+    @ResponseStatus(BAD_REQUEST)
+    public ExceptionResponse handle(InvalidCategoryBatchException ex) {
+        log.error("InvalidCategoryBatchException: ", ex);
+        return new ExceptionResponse(ex.getCode(), ex.getMessage());
+    }
+
+    @ExceptionHandler(CategoryReadUnavailableException.class)
+    @ResponseStatus(SERVICE_UNAVAILABLE)
+    public ExceptionResponse handle(CategoryReadUnavailableException ex) {
+        log.error("CategoryReadUnavailableException: ", ex);
+        return new ExceptionResponse(ex.getCode(), ex.getMessage());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(BAD_REQUEST)
     public ExceptionResponse handle(MethodArgumentNotValidException ex) {
@@ -7,6 +7,21 @@ public interface ExceptionConstraints {
     String CATEGORY_NOT_FOUND_MESSAGE = "Category not found for id: %s";
     String CANNOT_DELETE_SUBCATEGORY_CODE = "CANNOT_DELETE_SUBCATEGORY";
     String CANNOT_DELETE_SUBCATEGORY_MESSAGE = "Cannot delete subcategory directly for id: %s";
+    String CATEGORY_CYCLE_CODE = "CATEGORY_CYCLE";
+    String CATEGORY_CYCLE_MESSAGE = "Category %s cannot be moved under its own descendant %s";
+    String CATEGORY_BATCH_CYCLE_MESSAGE = "Moving categories %s would create a cycle";
+    String INVALID_CATEGORY_BATCH_CODE = "INVALID_CATEGORY_BATCH";
+    String DUPLICATE_BATCH_ID_MESSAGE = "Duplicate category id in batch: %s";
+    String INVALID_CATEGORY_IMPORT_CODE = "INVALID_CATEGORY_IMPORT";
+    String DUPLICATE_IMPORT_KEY_MESSAGE = "Duplicate category key in import: %s";
+    String UNKNOWN_PARENT_KEY_MESSAGE = "Unknown parent key %s for category key: %s";
+    String AMBIGUOUS_IMPORT_PARENT_MESSAGE = "Both parentKey and baseId are set for category key: %s";
+    String CYCLIC_IMPORT_KEYS_MESSAGE = "Cyclic parent keys detected for category keys: %s";
+    String INVALID_IMPORT_CSV_MESSAGE = "Invalid category import CSV at line %s: %s";
+    String CATEGORY_READ_UNAVAILABLE_CODE = "CATEGORY_READ_UNAVAILABLE";
+    String CATEGORY_READ_TIMEOUT_MESSAGE = "Category read did not complete within %s ms";
+    String CATEGORY_READ_QUEUE_FULL_MESSAGE = "Category read queue is full";
+    String CATEGORY_LOAD_FAILED_MESSAGE = "Categories could not be loaded from the cache or the database";
     String VALIDATION_EXCEPTION_CODE = "VALIDATION_EXCEPTION";
     String METHOD_NOT_ALLOWED_CODE = "METHOD_NOT_ALLOWED_CODE";
     String METHOD_NOT_ALLOWED_CODE_MESSAGE = "Method not allowed";
@@ -0,0 +1,13 @@
+package com.company.mscategory.exception;
+
+import lombok.Getter;
+
+@Getter
+public class InvalidCategoryBatchException extends RuntimeException {
+    private final String code;
+
+    public InvalidCategoryBatchException(String message, String code) {
+        super(message);
+        this.code = code;
+    }
+}
@@ -1,16 +1,28 @@
 package com.company.mscategory.mapper.factory;
 
 import com.company.mscategory.dao.entity.CategoryEntity;
+import com.company.mscategory.model.request.CategoryImportRequest;
 import com.company.mscategory.model.request.CategoryRequest;
+import com.company.mscategory.model.response.CategorySearchResponse;
 import com.company.mscategory.model.response.CategorySeparationResult;
 import com.company.mscategory.model.response.CategoryTreeNodeResponse;
+import com.company.mscategory.util.tree.CategorySnapshot;
 
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static com.company.mscategory.model.enums.CategoryStatus.ACTIVE;
+import static com.company.mscategory.util.tree.TreeConstraints.NO_NODE;
 
 public enum CategoryMapper {
     CATEGORY_MAPPER;
@@ -51,19 +63,161 @@ public enum CategoryMapper {
                 .collect(Collectors.toList());
     }
 
+    public CategoryEntity mapImportDetailToCategoryEntity(CategoryImportRequest.CategoryImportDetail importDetail, Long baseId) {
+        return CategoryEntity.builder()
+                .name(importDetail.getName())
+                .baseId(baseId)
+                .picture(importDetail.getPicture())
+                .status(ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
     public List<CategoryTreeNodeResponse> buildCategoryTree(List<CategoryEntity> categories) {
-        var subCategoryMap = categories.stream()
-                .filter(categoryEntity -> categoryEntity.getBaseId() != null)
-                .map(CategoryTreeNodeResponse::new)
-                .collect(Collectors.groupingBy(CategoryTreeNodeResponse::getBaseId));
-        return categories.stream()
-                .filter(categoryEntity -> categoryEntity.getBaseId() == null)
-                .map(base -> {
-                    var baseNode = new CategoryTreeNodeResponse(base);
-                    baseNode.setSubCategories(subCategoryMap.get(base.getId()));
-                    return baseNode;
-                })
-                .collect(Collectors.toList());
+        return buildCategoryTree(CategorySnapshot.build(categories));
+    }
+
+    public List<CategoryTreeNodeResponse> buildCategoryTree(CategorySnapshot snapshot) {
+        var roots = new ArrayList<CategoryTreeNodeResponse>(snapshot.getRootCount());
+        for (int i = 0; i < snapshot.getRootCount(); i++) {
+            roots.add(copySubtree(snapshot, snapshot.getRoot(i), Integer.MAX_VALUE));
+        }
+        return roots;
+    }
+
+    public CategoryTreeNodeResponse mapToCategoryTreeNodeResponse(CategorySnapshot snapshot, int node) {
+        return new CategoryTreeNodeResponse(snapshot.getId(node), snapshot.getName(node),
+                snapshot.hasBaseId(node) ? snapshot.getBaseId(node) : null, snapshot.getPicture(node), null);
+    }
+
+    public CategoryTreeNodeResponse copySubtree(CategorySnapshot snapshot, int node, int maxDepth) {
+        var copies = new ArrayList<CategoryTreeNodeResponse>();
+        var nodes = new int[16];
+        copies.add(mapToCategoryTreeNodeResponse(snapshot, node));
+        nodes[0] = node;
+        int depth = 0;
+        int levelEnd = 1;
+        for (int cursor = 0; cursor < copies.size(); cursor++) {
+            if (cursor == levelEnd) {
+                depth++;
+                levelEnd = copies.size();
+            }
+            if (depth >= maxDepth) {
+                break;
+            }
+            int childCount = snapshot.getChildCount(nodes[cursor]);
+            if (childCount == 0) {
+                continue;
+            }
+            var children = new ArrayList<CategoryTreeNodeResponse>(childCount);
+            for (int i = 0; i < childCount; i++) {
+                int child = snapshot.getChild(nodes[cursor], i);
+                var childCopy = mapToCategoryTreeNodeResponse(snapshot, child);
+                children.add(childCopy);
+                if (copies.size() == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, nodes.length * 2);
+                }
+                nodes[copies.size()] = child;
+                copies.add(childCopy);
+            }
+            copies.get(cursor).setSubCategories(children);
+        }
+        return copies.get(0);
+    }
+
+    public List<CategoryTreeNodeResponse> buildAncestorPath(CategorySnapshot snapshot, int node) {
+        var path = new ArrayList<CategoryTreeNodeResponse>();
+        for (int current = node; current != NO_NODE; current = snapshot.getParent(current)) {
+            path.add(mapToCategoryTreeNodeResponse(snapshot, current));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    public CategorySearchResponse mapToCategorySearchResponse(CategorySnapshot snapshot, int node) {
+        var path = new ArrayList<String>();
+        for (int current = snapshot.getParent(node); current != NO_NODE; current = snapshot.getParent(current)) {
+            path.add(snapshot.getName(current));
+        }
+        Collections.reverse(path);
+        return new CategorySearchResponse(snapshot.getId(node), snapshot.getName(node),
+                snapshot.hasBaseId(node) ? snapshot.getBaseId(node) : null, snapshot.getPicture(node), path);
     }
-}
 
+    public List<Long> collectDescendantIds(CategorySnapshot snapshot, int node) {
+        var queue = new int[snapshot.getSubtreeSize(node) - 1];
+        int tail = 0;
+        for (int head = -1; head < tail; head++) {
+            int current = head < 0 ? node : queue[head];
+            for (int i = 0; i < snapshot.getChildCount(current); i++) {
+                queue[tail++] = snapshot.getChild(current, i);
+            }
+        }
+        var descendantIds = new ArrayList<Long>(queue.length);
+        for (int descendant : queue) {
+            descendantIds.add(snapshot.getId(descendant));
+        }
+        return descendantIds;
+    }
+
+    public String buildPath(String basePath, Long categoryId) {
+        return (basePath == null ? "/" : basePath) + categoryId + "/";
+    }
+
+    public Map<Long, Long> buildParentIndex(Collection<CategoryEntity> categories) {
+        var parents = new HashMap<Long, Long>();
+        categories.forEach(category -> {
+            if (category.getPath() == null) {
+                parents.put(category.getId(), category.getBaseId());
+                return;
+            }
+            Long parentId = null;
+            for (var segment : category.getPath().split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                var id = Long.valueOf(segment);
+                parents.put(id, parentId);
+                parentId = id;
+            }
+        });
+        return parents;
+    }
+
+    public List<Long> findCycle(Map<Long, Long> parents, Collection<Long> categoryIds) {
+        var acyclic = new HashSet<Long>();
+        for (var categoryId : categoryIds) {
+            var walk = new LinkedHashSet<Long>();
+            var current = categoryId;
+            while (current != null && !acyclic.contains(current)) {
+                if (!walk.add(current)) {
+                    var cycle = new ArrayList<>(walk);
+                    return cycle.subList(cycle.indexOf(current), cycle.size());
+                }
+                current = parents.get(current);
+            }
+            acyclic.addAll(walk);
+        }
+        return List.of();
+    }
+
+    public String resolvePath(Map<Long, Long> parents, Long categoryId, Map<Long, String> resolvedPaths) {
+        var chain = new ArrayDeque<Long>();
+        var current = categoryId;
+        while (current != null && !resolvedPaths.containsKey(current)) {
+            chain.push(current);
+            current = parents.get(current);
+        }
+        var path = current == null ? null : resolvedPaths.get(current);
+        while (!chain.isEmpty()) {
+            var id = chain.pop();
+            path = buildPath(path, id);
+            resolvedPaths.put(id, path);
+        }
+        return path;
+    }
+
+    public boolean isSameOrDescendantPath(String path, String ancestorPath) {
+        return path != null && ancestorPath != null && path.startsWith(ancestorPath);
+    }
+}
@@ -0,0 +1,7 @@
+package com.company.mscategory.model.enums;
+
+public enum CategoryChangeType {
+    UPSERT,
+    DELETE,
+    COMPACTED
+}
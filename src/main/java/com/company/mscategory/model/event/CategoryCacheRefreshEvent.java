@@ -0,0 +1,23 @@
+package com.company.mscategory.model.event;
+
+import com.company.mscategory.dao.entity.CategoryEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CategoryCacheRefreshEvent {
+    private final List<CategoryEntity> upserts;
+    private final List<Long> removedIds;
+    private final boolean fullRebuild;
+
+    public static CategoryCacheRefreshEvent delta(List<CategoryEntity> upserts, List<Long> removedIds) {
+        return new CategoryCacheRefreshEvent(upserts, removedIds, false);
+    }
+
+    public static CategoryCacheRefreshEvent rebuild() {
+        return new CategoryCacheRefreshEvent(List.of(), List.of(), true);
+    }
+}
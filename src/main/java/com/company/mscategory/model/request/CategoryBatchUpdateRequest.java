@@ -0,0 +1,34 @@
+package com.company.mscategory.model.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryBatchUpdateRequest {
+    @Valid
+    @NotNull(message = "Categories list cannot be null")
+    @Size(min = 1, max = 1000, message = "Categories list must contain between 1 and 1000 entries")
+    private List<CategoryBatchUpdateDetail> categories;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryBatchUpdateDetail {
+        @NotNull(message = "Category id cannot be null")
+        private Long id;
+        @NotBlank(message = "Category name cannot be blank")
+        private String name;
+        private Long baseId;
+        @NotBlank(message = "Category picture cannot be blank")
+        private String picture;
+    }
+}
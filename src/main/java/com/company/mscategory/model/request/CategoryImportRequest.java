@@ -0,0 +1,33 @@
+package com.company.mscategory.model.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryImportRequest {
+    @Valid
+    @NotNull(message = "Categories list cannot be null")
+    private List<CategoryImportDetail> categories;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryImportDetail {
+        @NotBlank(message = "Category key cannot be blank")
+        private String key;
+        private String parentKey;
+        private Long baseId;
+        @NotBlank(message = "Category name cannot be blank")
+        private String name;
+        @NotBlank(message = "Category picture cannot be blank")
+        private String picture;
+    }
+}
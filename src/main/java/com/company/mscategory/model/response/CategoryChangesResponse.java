@@ -0,0 +1,18 @@
+package com.company.mscategory.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryChangesResponse {
+    private Long version;
+    private Boolean resyncRequired;
+    private Boolean hasMore;
+    private List<CategoryTreeNodeResponse> upserts;
+    private List<Long> deletes;
+}
@@ -0,0 +1,15 @@
+package com.company.mscategory.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryImportResponse {
+    private Integer importedCount;
+    private Map<String, Long> ids;
+}
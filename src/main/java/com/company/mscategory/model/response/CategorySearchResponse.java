@@ -0,0 +1,18 @@
+package com.company.mscategory.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySearchResponse {
+    private Long id;
+    private String name;
+    private Long baseId;
+    private String picture;
+    private List<String> path;
+}
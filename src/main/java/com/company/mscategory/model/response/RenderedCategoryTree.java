@@ -0,0 +1,19 @@
+package com.company.mscategory.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.With;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class RenderedCategoryTree {
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final String etag;
+    private final String gzipEtag;
+    private final long catalogVersion;
+    @With
+    private final Instant degradedSnapshotTime;
+}
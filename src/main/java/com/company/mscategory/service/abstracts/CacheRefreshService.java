@@ -0,0 +1,11 @@
+package com.company.mscategory.service.abstracts;
+
+import com.company.mscategory.model.event.CategoryCacheRefreshEvent;
+
+public interface CacheRefreshService {
+    void enqueueRefresh(CategoryCacheRefreshEvent event);
+
+    void drainRefreshes();
+
+    int getPendingRefreshCount();
+}
@@ -1,13 +1,23 @@
 package com.company.mscategory.service.abstracts;
 
 import com.company.mscategory.dao.entity.CategoryEntity;
+import com.company.mscategory.util.cache.CachedCategories;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 public interface CacheService {
     CompletableFuture<List<CategoryEntity>> saveCategoriesToCache();
-    List<CategoryEntity> getCategoriesFromCache();
+    CompletableFuture<List<CategoryEntity>> loadCategoriesOnMiss();
+    void applyCacheDelta(List<CategoryEntity> upserts, List<Long> removedIds);
+    void reconcileCache();
+    CachedCategories getCategoriesFromCache();
+    List<CategoryEntity> peekLocalCategories();
+    long getCategoriesVersion(List<CategoryEntity> categories);
+    CategoryEntity getCategoryFromCache(Long categoryId);
+    void evictLocalCache(Long version);
     void fallbackSaveToCache(List<CategoryEntity> categoryEntityList, Throwable throwable);
-    List<CategoryEntity> fallbackGetFromCache(Throwable throwable);
+    void fallbackApplyCacheDelta(List<CategoryEntity> upserts, List<Long> removedIds, Throwable throwable);
+    CachedCategories fallbackGetFromCache(Throwable throwable);
+    CategoryEntity fallbackGetCategoryFromCache(Long categoryId, Throwable throwable);
 }
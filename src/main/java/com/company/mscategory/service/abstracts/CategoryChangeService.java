@@ -0,0 +1,15 @@
+package com.company.mscategory.service.abstracts;
+
+import com.company.mscategory.model.response.CategoryChangesResponse;
+
+import java.util.Collection;
+
+public interface CategoryChangeService {
+    void recordUpserts(Collection<Long> categoryIds);
+
+    void recordDeletes(Collection<Long> categoryIds);
+
+    CategoryChangesResponse getChanges(Long since, Integer limit);
+
+    void compactChangeLog();
+}
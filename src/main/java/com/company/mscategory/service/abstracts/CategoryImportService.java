@@ -0,0 +1,10 @@
+package com.company.mscategory.service.abstracts;
+
+import com.company.mscategory.model.request.CategoryImportRequest;
+import com.company.mscategory.model.response.CategoryImportResponse;
+
+import java.util.List;
+
+public interface CategoryImportService {
+    CategoryImportResponse importCategories(List<CategoryImportRequest.CategoryImportDetail> importDetails);
+}
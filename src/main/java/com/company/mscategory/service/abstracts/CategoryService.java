@@ -1,17 +1,40 @@
 package com.company.mscategory.service.abstracts;
 
+import com.company.mscategory.model.request.CategoryBatchUpdateRequest.CategoryBatchUpdateDetail;
 import com.company.mscategory.model.request.CategoryRequest;
 import com.company.mscategory.model.request.CategoryUpdateRequest;
+import com.company.mscategory.model.response.CategorySearchResponse;
 import com.company.mscategory.model.response.CategoryTreeNodeResponse;
+import com.company.mscategory.model.response.RenderedCategoryTree;
+import com.company.mscategory.util.render.CategoryWriter;
+import com.company.mscategory.util.render.RenderFormat;
 
 import java.util.List;
 
 public interface CategoryService {
     List<CategoryTreeNodeResponse> getCategories();
 
+    RenderedCategoryTree getRenderedCategories(RenderFormat format);
+
+    CategoryTreeNodeResponse getCategory(Long categoryId);
+
+    CategoryTreeNodeResponse getCategoryTree(Long categoryId, Integer depth);
+
+    List<CategoryTreeNodeResponse> getCategoryPath(Long categoryId);
+
+    List<Long> getDescendantIds(Long categoryId);
+
+    List<CategorySearchResponse> searchCategories(String query, Integer limit);
+
+    CategoryWriter prepareCategoryTree();
+
+    CategoryWriter prepareCategoriesAsNdjson();
+
     void createCategory(CategoryRequest categoryRequest);
 
     void updateCategory(Long categoryId, CategoryUpdateRequest categoryUpdateRequest);
 
+    void updateCategories(List<CategoryBatchUpdateDetail> categoryDetails);
+
     void deleteCategory(Long categoryId);
 }
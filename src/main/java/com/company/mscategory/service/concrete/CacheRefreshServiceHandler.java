@@ -0,0 +1,107 @@
+package com.company.mscategory.service.concrete;
+
+import com.company.mscategory.dao.entity.CategoryEntity;
+import com.company.mscategory.model.event.CategoryCacheRefreshEvent;
+import com.company.mscategory.service.abstracts.CacheRefreshService;
+import com.company.mscategory.util.metrics.CategoryMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_REFRESH_DEBOUNCE_MILLIS;
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_REFRESH_MAX_PENDING;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CacheRefreshServiceHandler implements CacheRefreshService {
+    private final CacheServiceHandler cacheServiceHandler;
+    private final CategoryMetrics categoryMetrics;
+    private final ScheduledExecutorService cacheRefreshExecutor;
+    private final Map<Long, CategoryEntity> pendingUpserts = new LinkedHashMap<>();
+    private final Set<Long> pendingRemovals = new LinkedHashSet<>();
+    private boolean pendingRebuild;
+    private boolean drainScheduled;
+    private long oldestPendingNanos;
+
+    @PostConstruct
+    public void registerMetrics() {
+        categoryMetrics.registerCacheRefreshQueue(this, CacheRefreshServiceHandler::getPendingRefreshCount);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Override
+    public void enqueueRefresh(CategoryCacheRefreshEvent event) {
+        categoryMetrics.cacheRefreshEnqueued();
+        synchronized (this) {
+            if (!drainScheduled) {
+                oldestPendingNanos = System.nanoTime();
+            }
+            if (event.isFullRebuild()
+                    || pendingUpserts.size() + pendingRemovals.size() + event.getUpserts().size()
+                    + event.getRemovedIds().size() > CACHE_REFRESH_MAX_PENDING) {
+                pendingRebuild = true;
+                pendingUpserts.clear();
+                pendingRemovals.clear();
+            } else if (!pendingRebuild) {
+                event.getRemovedIds().forEach(categoryId -> {
+                    pendingUpserts.remove(categoryId);
+                    pendingRemovals.add(categoryId);
+                });
+                event.getUpserts().forEach(category -> {
+                    pendingRemovals.remove(category.getId());
+                    pendingUpserts.put(category.getId(), category);
+                });
+            }
+            if (!drainScheduled) {
+                drainScheduled = true;
+                cacheRefreshExecutor.schedule(this::drainRefreshes, CACHE_REFRESH_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @Override
+    public void drainRefreshes() {
+        List<CategoryEntity> upserts;
+        List<Long> removedIds;
+        boolean rebuild;
+        long enqueuedAt;
+        synchronized (this) {
+            upserts = new ArrayList<>(pendingUpserts.values());
+            removedIds = new ArrayList<>(pendingRemovals);
+            rebuild = pendingRebuild;
+            enqueuedAt = oldestPendingNanos;
+            pendingUpserts.clear();
+            pendingRemovals.clear();
+            pendingRebuild = false;
+            drainScheduled = false;
+        }
+        try {
+            if (rebuild) {
+                cacheServiceHandler.saveCategoriesToCache();
+            } else if (!upserts.isEmpty() || !removedIds.isEmpty()) {
+                cacheServiceHandler.applyCacheDelta(upserts, removedIds);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Failed to refresh category cache", ex);
+        } finally {
+            categoryMetrics.recordCacheRefreshLag(System.nanoTime() - enqueuedAt);
+        }
+    }
+
+    @Override
+    public synchronized int getPendingRefreshCount() {
+        return pendingRebuild ? 1 : pendingUpserts.size() + pendingRemovals.size();
+    }
+}
@@ -1,55 +1,278 @@
 package com.company.mscategory.service.concrete;
 
+import com.company.mscategory.aspect.Measured;
 import com.company.mscategory.dao.entity.CategoryEntity;
 import com.company.mscategory.dao.repository.CategoryRepository;
+import com.company.mscategory.model.enums.CategoryStatus;
 import com.company.mscategory.service.abstracts.CacheService;
 import com.company.mscategory.util.cache.CacheUtil;
+import com.company.mscategory.util.cache.CachedCategories;
+import com.company.mscategory.util.cache.LocalSnapshotStore;
+import com.company.mscategory.util.cache.NearCache;
+import com.company.mscategory.util.metrics.CategoryMetrics;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.redisson.client.codec.Codec;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.company.mscategory.util.cache.CacheConstraints.CACHE_EXPIRATION_COUNT;
 import static com.company.mscategory.util.cache.CacheConstraints.CACHE_EXPIRATION_UNIT;
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_INVALIDATION_TOPIC;
 import static com.company.mscategory.util.cache.CacheConstraints.CACHE_KEY;
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_LOCK_KEY;
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_LOCK_LEASE_MILLIS;
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_LOCK_WAIT_MILLIS;
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_MAP_KEY;
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_RECONCILIATION_DELAY_MILLIS;
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_SOFT_EXPIRATION_MILLIS;
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_VERSION_KEY;
+import static com.company.mscategory.util.cache.CacheConstraints.LOCAL_CACHE_EXPIRATION_COUNT;
+import static com.company.mscategory.util.cache.CacheConstraints.LOCAL_CACHE_EXPIRATION_UNIT;
+import static com.company.mscategory.util.cache.CacheConstraints.LOCAL_CACHE_MAX_SIZE;
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_TIER_LOCAL;
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_TIER_REDIS;
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_TIER_SNAPSHOT;
 
 @Slf4j
+@Measured
 @Service
 @RequiredArgsConstructor
 public class CacheServiceHandler implements CacheService {
     private final CacheUtil cacheUtil;
     private final CategoryRepository categoryRepository;
+    private final CategoryMetrics categoryMetrics;
+    private final LocalSnapshotStore localSnapshotStore;
+    private final Codec categoryMapCodec;
+    private final NearCache<String, List<CategoryEntity>> nearCache = new NearCache<>(LOCAL_CACHE_MAX_SIZE,
+            Duration.of(LOCAL_CACHE_EXPIRATION_COUNT, LOCAL_CACHE_EXPIRATION_UNIT));
+    private final AtomicBoolean reconciliationRequired = new AtomicBoolean();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicReference<CompletableFuture<List<CategoryEntity>>> inflightLoad = new AtomicReference<>();
+
+    @PostConstruct
+    public void subscribeToInvalidations() {
+        try {
+            cacheUtil.subscribe(CACHE_INVALIDATION_TOPIC, Long.class, this::evictLocalCache);
+            subscribed.set(true);
+        } catch (RuntimeException ex) {
+            log.error("Failed to subscribe to category cache invalidations, retrying on the next reconciliation", ex);
+        }
+    }
 
-    @Async
     @CircuitBreaker(name = "redisCacheBreaker", fallbackMethod = "fallbackSaveToCache")
     @Retry(name = "redisCacheRetry", fallbackMethod = "fallbackSaveToCache")
     @Override
     public CompletableFuture<List<CategoryEntity>> saveCategoriesToCache() {
-        List<CategoryEntity> categoryEntityList = categoryRepository.findAll();
-        cacheUtil.saveToCache(CACHE_KEY, categoryEntityList, CACHE_EXPIRATION_COUNT, CACHE_EXPIRATION_UNIT);
-        log.info("Categories saved to cache with key: {}", CACHE_KEY);
-        return CompletableFuture.completedFuture(categoryEntityList);
+        return CompletableFuture.completedFuture(rebuildCache());
+    }
+
+    @Override
+    public CompletableFuture<List<CategoryEntity>> loadCategoriesOnMiss() {
+        var loader = new CompletableFuture<List<CategoryEntity>>();
+        var inflight = inflightLoad.compareAndExchange(null, loader);
+        if (inflight != null) {
+            return inflight;
+        }
+        try {
+            loader.complete(loadWithLease());
+        } catch (RuntimeException ex) {
+            loader.completeExceptionally(ex);
+        } finally {
+            inflightLoad.set(null);
+        }
+        return loader;
+    }
+
+    @CircuitBreaker(name = "redisCacheBreaker", fallbackMethod = "fallbackApplyCacheDelta")
+    @Retry(name = "redisCacheRetry", fallbackMethod = "fallbackApplyCacheDelta")
+    @Override
+    public void applyCacheDelta(List<CategoryEntity> upserts, List<Long> removedIds) {
+        if (!cacheUtil.exists(CACHE_MAP_KEY)) {
+            rebuildCache();
+            return;
+        }
+        var activeUpserts = upserts.stream()
+                .filter(category -> category.getStatus() != CategoryStatus.DELETED)
+                .collect(Collectors.toList());
+        var removals = new ArrayList<>(removedIds);
+        upserts.stream()
+                .filter(category -> category.getStatus() == CategoryStatus.DELETED)
+                .forEach(category -> removals.add(category.getId()));
+        cacheUtil.patchMap(CACHE_MAP_KEY, toEntries(activeUpserts), removals, categoryMapCodec,
+                CACHE_EXPIRATION_COUNT, CACHE_EXPIRATION_UNIT);
+        var version = cacheUtil.incrementVersion(CACHE_VERSION_KEY);
+        cacheUtil.publish(CACHE_INVALIDATION_TOPIC, version);
+        log.info("Applied cache delta of {} upserts and {} removals with version: {}", activeUpserts.size(), removals.size(), version);
+    }
+
+    @Scheduled(fixedDelay = CACHE_RECONCILIATION_DELAY_MILLIS, initialDelay = CACHE_RECONCILIATION_DELAY_MILLIS)
+    @Override
+    public void reconcileCache() {
+        if (!subscribed.get()) {
+            subscribeToInvalidations();
+        }
+        try {
+            if (!reconciliationRequired.getAndSet(false) && !isCloseToExpiry()
+                    && cacheUtil.getMapSize(CACHE_MAP_KEY, categoryMapCodec) == categoryRepository.countActive()) {
+                return;
+            }
+            if (cacheUtil.tryLock(CACHE_LOCK_KEY, 0, CACHE_LOCK_LEASE_MILLIS)) {
+                try {
+                    log.info("Category cache is out of sync or close to expiry, rebuilding");
+                    rebuildCache();
+                } finally {
+                    cacheUtil.unlock(CACHE_LOCK_KEY);
+                }
+            }
+        } catch (RuntimeException ex) {
+            reconciliationRequired.set(true);
+            log.error("Failed to reconcile category cache", ex);
+        }
     }
 
     @CircuitBreaker(name = "redisCacheBreaker", fallbackMethod = "fallbackGetFromCache")
     @Override
-    public List<CategoryEntity> getCategoriesFromCache() {
-        return cacheUtil.getBucket(CACHE_KEY);
+    public CachedCategories getCategoriesFromCache() {
+        var localCategories = nearCache.get(CACHE_KEY);
+        if (localCategories != null) {
+            categoryMetrics.cacheHit(CACHE_TIER_LOCAL);
+            return new CachedCategories(localCategories, null);
+        }
+        categoryMetrics.cacheMiss(CACHE_TIER_LOCAL);
+        var categories = readFromRedis();
+        if (categories == null) {
+            categoryMetrics.cacheMiss(CACHE_TIER_REDIS);
+            return null;
+        }
+        categoryMetrics.cacheHit(CACHE_TIER_REDIS);
+        return new CachedCategories(categories, null);
+    }
+
+    @Override
+    public List<CategoryEntity> peekLocalCategories() {
+        return nearCache.get(CACHE_KEY);
+    }
+
+    @Override
+    public long getCategoriesVersion(List<CategoryEntity> categories) {
+        return nearCache.getVersion(CACHE_KEY, categories);
+    }
+
+    @CircuitBreaker(name = "redisCacheBreaker", fallbackMethod = "fallbackGetCategoryFromCache")
+    @Override
+    public CategoryEntity getCategoryFromCache(Long categoryId) {
+        CategoryEntity category = cacheUtil.getMapValue(CACHE_MAP_KEY, categoryId, categoryMapCodec);
+        if (category == null) {
+            categoryMetrics.cacheMiss(CACHE_TIER_REDIS);
+        } else {
+            categoryMetrics.cacheHit(CACHE_TIER_REDIS);
+        }
+        return category;
+    }
+
+    @Override
+    public void evictLocalCache(Long version) {
+        nearCache.invalidate(version);
+        log.info("Local category cache invalidated up to version: {}", version);
     }
 
     @Override
     public void fallbackSaveToCache(List<CategoryEntity> categoryEntityList, Throwable throwable) {
+        categoryMetrics.cacheFallback(CACHE_TIER_REDIS);
         log.error("Failed to save to cache due to Redis outage. Circuit breaker triggered.", throwable);
     }
 
     @Override
-    public List<CategoryEntity> fallbackGetFromCache(Throwable throwable) {
+    public void fallbackApplyCacheDelta(List<CategoryEntity> upserts, List<Long> removedIds, Throwable throwable) {
+        reconciliationRequired.set(true);
+        categoryMetrics.cacheFallback(CACHE_TIER_REDIS);
+        log.error("Failed to apply cache delta due to Redis outage. Full rebuild scheduled.", throwable);
+    }
+
+    @Override
+    public CachedCategories fallbackGetFromCache(Throwable throwable) {
+        categoryMetrics.cacheFallback(CACHE_TIER_REDIS);
         log.error("Failed to get from cache due to Redis outage. Circuit breaker triggered.", throwable);
-        return List.of();
+        var snapshot = localSnapshotStore.load();
+        var localCategories = nearCache.get(CACHE_KEY);
+        if (localCategories == null && snapshot != null) {
+            categoryMetrics.cacheHit(CACHE_TIER_SNAPSHOT);
+            localCategories = snapshot.getCategories();
+        }
+        if (localCategories == null) {
+            return null;
+        }
+        return new CachedCategories(localCategories, snapshot == null ? Instant.now() : snapshot.getSavedAt());
+    }
+
+    @Override
+    public CategoryEntity fallbackGetCategoryFromCache(Long categoryId, Throwable throwable) {
+        categoryMetrics.cacheFallback(CACHE_TIER_REDIS);
+        log.error("Failed to get category {} from cache due to Redis outage.", categoryId, throwable);
+        return null;
+    }
+
+    private boolean isCloseToExpiry() {
+        var timeToLive = cacheUtil.remainTimeToLive(CACHE_MAP_KEY);
+        return timeToLive == -2 || (timeToLive >= 0 && timeToLive < CACHE_SOFT_EXPIRATION_MILLIS);
+    }
+
+    private List<CategoryEntity> loadWithLease() {
+        try {
+            if (!cacheUtil.tryLock(CACHE_LOCK_KEY, CACHE_LOCK_WAIT_MILLIS, CACHE_LOCK_LEASE_MILLIS)) {
+                var categories = readFromRedis();
+                return categories == null ? categoryRepository.findAllActive() : categories;
+            }
+        } catch (RuntimeException ex) {
+            log.error("Failed to acquire cache lease, loading categories from the database", ex);
+            return categoryRepository.findAllActive();
+        }
+        try {
+            var categories = readFromRedis();
+            return categories == null ? rebuildCache() : categories;
+        } finally {
+            cacheUtil.unlock(CACHE_LOCK_KEY);
+        }
+    }
+
+    private List<CategoryEntity> readFromRedis() {
+        var version = cacheUtil.getVersion(CACHE_VERSION_KEY);
+        List<CategoryEntity> categories = cacheUtil.getMapValues(CACHE_MAP_KEY, categoryMapCodec);
+        if (categories != null) {
+            nearCache.put(CACHE_KEY, categories, version);
+            localSnapshotStore.persist(categories, version);
+        }
+        return categories;
+    }
+
+    private List<CategoryEntity> rebuildCache() {
+        List<CategoryEntity> categoryEntityList = categoryRepository.findAllActive();
+        cacheUtil.replaceMap(CACHE_MAP_KEY, toEntries(categoryEntityList), categoryMapCodec,
+                CACHE_EXPIRATION_COUNT, CACHE_EXPIRATION_UNIT);
+        var version = cacheUtil.incrementVersion(CACHE_VERSION_KEY);
+        nearCache.put(CACHE_KEY, categoryEntityList, version);
+        localSnapshotStore.persist(categoryEntityList, version);
+        cacheUtil.publish(CACHE_INVALIDATION_TOPIC, version);
+        log.info("Categories saved to cache with key: {} and version: {}", CACHE_MAP_KEY, version);
+        return categoryEntityList;
+    }
+
+    private Map<Long, CategoryEntity> toEntries(List<CategoryEntity> categories) {
+        return categories.stream().collect(Collectors.toMap(CategoryEntity::getId, Function.identity(), (first, second) -> second));
     }
 }
@@ -0,0 +1,134 @@
+package com.company.mscategory.service.concrete;
+
+import com.company.mscategory.aspect.Measured;
+import com.company.mscategory.dao.entity.CategoryChangeEntity;
+import com.company.mscategory.dao.entity.CategoryEntity;
+import com.company.mscategory.dao.repository.CategoryChangeRepository;
+import com.company.mscategory.dao.repository.CategoryRepository;
+import com.company.mscategory.model.enums.CategoryChangeType;
+import com.company.mscategory.model.enums.CategoryStatus;
+import com.company.mscategory.model.response.CategoryChangesResponse;
+import com.company.mscategory.model.response.CategoryTreeNodeResponse;
+import com.company.mscategory.service.abstracts.CategoryChangeService;
+import com.company.mscategory.util.cache.CacheUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.company.mscategory.util.changes.ChangeLogConstraints.CHANGES_DEFAULT_LIMIT;
+import static com.company.mscategory.util.changes.ChangeLogConstraints.CHANGES_MAX_LIMIT;
+import static com.company.mscategory.util.changes.ChangeLogConstraints.CHANGE_LOG_COMPACTION_DELAY_MILLIS;
+import static com.company.mscategory.util.changes.ChangeLogConstraints.CHANGE_LOG_COMPACTION_LEASE_MILLIS;
+import static com.company.mscategory.util.changes.ChangeLogConstraints.CHANGE_LOG_COMPACTION_LOCK_KEY;
+import static com.company.mscategory.util.changes.ChangeLogConstraints.CHANGE_LOG_RETENTION_DAYS;
+import static org.springframework.transaction.annotation.Propagation.MANDATORY;
+
+@Slf4j
+@Measured
+@Service
+@RequiredArgsConstructor
+public class CategoryChangeServiceHandler implements CategoryChangeService {
+    private final CategoryChangeRepository categoryChangeRepository;
+    private final CategoryRepository categoryRepository;
+    private final CacheUtil cacheUtil;
+
+    @Transactional(propagation = MANDATORY)
+    @Override
+    public void recordUpserts(Collection<Long> categoryIds) {
+        recordChanges(categoryIds, CategoryChangeType.UPSERT);
+    }
+
+    @Transactional(propagation = MANDATORY)
+    @Override
+    public void recordDeletes(Collection<Long> categoryIds) {
+        recordChanges(categoryIds, CategoryChangeType.DELETE);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CategoryChangesResponse getChanges(Long since, Integer limit) {
+        var latestVersion = categoryChangeRepository.findLatestVersion();
+        var compactedVersion = categoryChangeRepository.findCompactedVersion();
+        var currentVersion = latestVersion == null ? 0L : latestVersion;
+        if (since < 0 || since > currentVersion || (compactedVersion != null && since < compactedVersion)) {
+            return new CategoryChangesResponse(currentVersion, true, false, List.of(), List.of());
+        }
+        var boundedLimit = limit == null ? CHANGES_DEFAULT_LIMIT : Math.min(Math.max(limit, 1), CHANGES_MAX_LIMIT);
+        var changes = categoryChangeRepository.findChangesSince(since, PageRequest.of(0, boundedLimit));
+        if (changes.isEmpty()) {
+            return new CategoryChangesResponse(since, false, false, List.of(), List.of());
+        }
+        var lastVersion = changes.get(changes.size() - 1).getVersion();
+        var latestChanges = new LinkedHashMap<Long, CategoryChangeType>();
+        changes.forEach(change -> {
+            latestChanges.remove(change.getCategoryId());
+            latestChanges.put(change.getCategoryId(), change.getChangeType());
+        });
+        var upsertIds = latestChanges.entrySet().stream()
+                .filter(entry -> entry.getValue() == CategoryChangeType.UPSERT)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        var categories = new HashMap<Long, CategoryEntity>();
+        categoryRepository.findAllById(upsertIds).forEach(category -> categories.put(category.getId(), category));
+        var upserts = new ArrayList<CategoryTreeNodeResponse>();
+        var deletes = new ArrayList<Long>();
+        latestChanges.forEach((categoryId, changeType) -> {
+            var category = categories.get(categoryId);
+            if (changeType == CategoryChangeType.UPSERT && category != null && category.getStatus() != CategoryStatus.DELETED) {
+                upserts.add(new CategoryTreeNodeResponse(category));
+            } else {
+                deletes.add(categoryId);
+            }
+        });
+        return new CategoryChangesResponse(lastVersion, false, lastVersion < currentVersion, upserts, deletes);
+    }
+
+    @Scheduled(fixedDelay = CHANGE_LOG_COMPACTION_DELAY_MILLIS, initialDelay = CHANGE_LOG_COMPACTION_DELAY_MILLIS)
+    @Transactional
+    @Override
+    public void compactChangeLog() {
+        if (!cacheUtil.tryLock(CHANGE_LOG_COMPACTION_LOCK_KEY, 0, CHANGE_LOG_COMPACTION_LEASE_MILLIS)) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cacheUtil.unlock(CHANGE_LOG_COMPACTION_LOCK_KEY);
+            }
+        });
+        var compactedVersion = categoryChangeRepository.findLastVersionBefore(
+                LocalDateTime.now().minusDays(CHANGE_LOG_RETENTION_DAYS));
+        if (compactedVersion == null) {
+            return;
+        }
+        var removed = categoryChangeRepository.deleteUpToVersion(compactedVersion);
+        categoryChangeRepository.insertCompactionMarker(compactedVersion);
+        log.info("Compacted {} category changes up to version: {}", removed, compactedVersion);
+    }
+
+    private void recordChanges(Collection<Long> categoryIds, CategoryChangeType changeType) {
+        if (categoryIds.isEmpty()) {
+            return;
+        }
+        var version = categoryChangeRepository.reserveVersions(categoryIds.size()) - categoryIds.size();
+        var changes = new ArrayList<CategoryChangeEntity>(categoryIds.size());
+        for (var categoryId : categoryIds) {
+            changes.add(CategoryChangeEntity.builder().version(++version).categoryId(categoryId).changeType(changeType).build());
+        }
+        categoryChangeRepository.saveAll(changes);
+    }
+}
@@ -0,0 +1,142 @@
+package com.company.mscategory.service.concrete;
+
+import com.company.mscategory.aspect.Measured;
+import com.company.mscategory.dao.repository.CategoryRepository;
+import com.company.mscategory.exception.InvalidCategoryImportException;
+import com.company.mscategory.exception.NotFoundException;
+import com.company.mscategory.model.event.CategoryCacheRefreshEvent;
+import com.company.mscategory.model.request.CategoryImportRequest.CategoryImportDetail;
+import com.company.mscategory.model.response.CategoryImportResponse;
+import com.company.mscategory.service.abstracts.CategoryImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.company.mscategory.exception.ExceptionConstraints.AMBIGUOUS_IMPORT_PARENT_MESSAGE;
+import static com.company.mscategory.exception.ExceptionConstraints.CATEGORY_NOT_FOUND_CODE;
+import static com.company.mscategory.exception.ExceptionConstraints.CATEGORY_NOT_FOUND_MESSAGE;
+import static com.company.mscategory.exception.ExceptionConstraints.CYCLIC_IMPORT_KEYS_MESSAGE;
+import static com.company.mscategory.exception.ExceptionConstraints.DUPLICATE_IMPORT_KEY_MESSAGE;
+import static com.company.mscategory.exception.ExceptionConstraints.INVALID_CATEGORY_IMPORT_CODE;
+import static com.company.mscategory.exception.ExceptionConstraints.UNKNOWN_PARENT_KEY_MESSAGE;
+import static com.company.mscategory.mapper.factory.CategoryMapper.CATEGORY_MAPPER;
+import static com.company.mscategory.util.imports.ImportConstraints.IMPORT_BATCH_SIZE;
+
+@Measured
+@Service
+@RequiredArgsConstructor
+public class CategoryImportServiceHandler implements CategoryImportService {
+    private final CategoryRepository categoryRepository;
+    private final CategoryChangeServiceHandler categoryChangeServiceHandler;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Transactional
+    @Override
+    public CategoryImportResponse importCategories(List<CategoryImportDetail> importDetails) {
+        var orderedDetails = sortParentsFirst(importDetails);
+        var basePaths = loadBasePaths(importDetails);
+        var ids = new LinkedHashMap<String, Long>(Math.max(16, importDetails.size() * 4 / 3 + 1));
+        var paths = new HashMap<String, String>(Math.max(16, importDetails.size() * 4 / 3 + 1));
+        var pendingIds = new ArrayList<Long>(IMPORT_BATCH_SIZE);
+        for (var importDetail : orderedDetails) {
+            var baseId = importDetail.getParentKey() == null ? importDetail.getBaseId() : ids.get(importDetail.getParentKey());
+            var basePath = importDetail.getParentKey() == null ? basePaths.get(importDetail.getBaseId()) : paths.get(importDetail.getParentKey());
+            var categoryEntity = CATEGORY_MAPPER.mapImportDetailToCategoryEntity(importDetail, baseId);
+            categoryEntity.setId(categoryRepository.reserveId(categoryEntity));
+            categoryEntity.setPath(CATEGORY_MAPPER.buildPath(basePath, categoryEntity.getId()));
+            categoryRepository.insert(categoryEntity);
+            ids.put(importDetail.getKey(), categoryEntity.getId());
+            paths.put(importDetail.getKey(), categoryEntity.getPath());
+            pendingIds.add(categoryEntity.getId());
+            if (pendingIds.size() == IMPORT_BATCH_SIZE) {
+                flushBatch(pendingIds);
+            }
+        }
+        flushBatch(pendingIds);
+        applicationEventPublisher.publishEvent(CategoryCacheRefreshEvent.rebuild());
+        return new CategoryImportResponse(ids.size(), ids);
+    }
+
+    private void flushBatch(List<Long> pendingIds) {
+        categoryChangeServiceHandler.recordUpserts(pendingIds);
+        categoryRepository.flush();
+        entityManager.clear();
+        pendingIds.clear();
+    }
+
+    private Map<Long, String> loadBasePaths(List<CategoryImportDetail> importDetails) {
+        var baseIds = importDetails.stream()
+                .map(CategoryImportDetail::getBaseId)
+                .filter(baseId -> baseId != null)
+                .collect(Collectors.toSet());
+        if (baseIds.isEmpty()) {
+            return Map.of();
+        }
+        var basePaths = new HashMap<Long, String>();
+        categoryRepository.findAllById(baseIds)
+                .forEach(baseCategory -> basePaths.put(baseCategory.getId(), baseCategory.getPath()));
+        baseIds.stream()
+                .filter(baseId -> !basePaths.containsKey(baseId))
+                .findFirst()
+                .ifPresent(missingId -> {
+                    throw new NotFoundException(String.format(CATEGORY_NOT_FOUND_MESSAGE, missingId), CATEGORY_NOT_FOUND_CODE);
+                });
+        return basePaths;
+    }
+
+    private List<CategoryImportDetail> sortParentsFirst(List<CategoryImportDetail> importDetails) {
+        var byKey = new HashMap<String, CategoryImportDetail>();
+        var children = new HashMap<String, List<CategoryImportDetail>>();
+        var ordered = new ArrayList<CategoryImportDetail>(importDetails.size());
+        var queue = new ArrayDeque<CategoryImportDetail>();
+        importDetails.forEach(importDetail -> {
+            if (byKey.put(importDetail.getKey(), importDetail) != null) {
+                throw new InvalidCategoryImportException(String.format(DUPLICATE_IMPORT_KEY_MESSAGE, importDetail.getKey()),
+                        INVALID_CATEGORY_IMPORT_CODE);
+            }
+        });
+        importDetails.forEach(importDetail -> {
+            var parentKey = importDetail.getParentKey();
+            if (parentKey == null) {
+                queue.add(importDetail);
+                return;
+            }
+            if (importDetail.getBaseId() != null) {
+                throw new InvalidCategoryImportException(String.format(AMBIGUOUS_IMPORT_PARENT_MESSAGE, importDetail.getKey()),
+                        INVALID_CATEGORY_IMPORT_CODE);
+            }
+            if (!byKey.containsKey(parentKey)) {
+                throw new InvalidCategoryImportException(String.format(UNKNOWN_PARENT_KEY_MESSAGE, parentKey, importDetail.getKey()),
+                        INVALID_CATEGORY_IMPORT_CODE);
+            }
+            children.computeIfAbsent(parentKey, key -> new ArrayList<>()).add(importDetail);
+        });
+        while (!queue.isEmpty()) {
+            var importDetail = queue.poll();
+            ordered.add(importDetail);
+            queue.addAll(children.getOrDefault(importDetail.getKey(), List.of()));
+        }
+        if (ordered.size() != importDetails.size()) {
+            var orderedKeys = ordered.stream().map(CategoryImportDetail::getKey).collect(Collectors.toCollection(HashSet::new));
+            var cyclicKeys = importDetails.stream()
+                    .map(CategoryImportDetail::getKey)
+                    .filter(key -> !orderedKeys.contains(key))
+                    .collect(Collectors.toList());
+            throw new InvalidCategoryImportException(String.format(CYCLIC_IMPORT_KEYS_MESSAGE, cyclicKeys),
+                    INVALID_CATEGORY_IMPORT_CODE);
+        }
+        return ordered;
+    }
+}
@@ -1,48 +1,160 @@
 package com.company.mscategory.service.concrete;
 
-import com.company.mscategory.aspect.Log;
+import com.company.mscategory.aspect.Measured;
 import com.company.mscategory.dao.entity.CategoryEntity;
 import com.company.mscategory.dao.repository.CategoryRepository;
 import com.company.mscategory.exception.CannotDeleteSubCategoryException;
+import com.company.mscategory.exception.CategoryCycleException;
+import com.company.mscategory.exception.CategoryReadUnavailableException;
+import com.company.mscategory.exception.InvalidCategoryBatchException;
 import com.company.mscategory.exception.NotFoundException;
 import com.company.mscategory.model.enums.CategoryStatus;
+import com.company.mscategory.model.event.CategoryCacheRefreshEvent;
+import com.company.mscategory.model.request.CategoryBatchUpdateRequest.CategoryBatchUpdateDetail;
 import com.company.mscategory.model.request.CategoryRequest;
 import com.company.mscategory.model.request.CategoryUpdateRequest;
+import com.company.mscategory.model.response.CategorySearchResponse;
 import com.company.mscategory.model.response.CategoryTreeNodeResponse;
+import com.company.mscategory.model.response.RenderedCategoryTree;
 import com.company.mscategory.service.abstracts.CategoryService;
+import com.company.mscategory.util.cache.CachedCategories;
+import com.company.mscategory.util.metrics.CategoryMetrics;
+import com.company.mscategory.util.render.CategoryStreamWriter;
+import com.company.mscategory.util.render.CategoryWriter;
+import com.company.mscategory.util.render.RenderFormat;
+import com.company.mscategory.util.search.CategorySearchIndex;
+import com.company.mscategory.util.tree.CategorySnapshot;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.company.mscategory.exception.ExceptionConstraints.CANNOT_DELETE_SUBCATEGORY_CODE;
 import static com.company.mscategory.exception.ExceptionConstraints.CANNOT_DELETE_SUBCATEGORY_MESSAGE;
+import static com.company.mscategory.exception.ExceptionConstraints.CATEGORY_BATCH_CYCLE_MESSAGE;
+import static com.company.mscategory.exception.ExceptionConstraints.CATEGORY_CYCLE_CODE;
+import static com.company.mscategory.exception.ExceptionConstraints.CATEGORY_CYCLE_MESSAGE;
+import static com.company.mscategory.exception.ExceptionConstraints.CATEGORY_LOAD_FAILED_MESSAGE;
 import static com.company.mscategory.exception.ExceptionConstraints.CATEGORY_NOT_FOUND_CODE;
 import static com.company.mscategory.exception.ExceptionConstraints.CATEGORY_NOT_FOUND_MESSAGE;
+import static com.company.mscategory.exception.ExceptionConstraints.CATEGORY_READ_UNAVAILABLE_CODE;
+import static com.company.mscategory.exception.ExceptionConstraints.DUPLICATE_BATCH_ID_MESSAGE;
+import static com.company.mscategory.exception.ExceptionConstraints.INVALID_CATEGORY_BATCH_CODE;
 import static com.company.mscategory.mapper.factory.CategoryMapper.CATEGORY_MAPPER;
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_UNKNOWN_VERSION;
+import static com.company.mscategory.util.render.RenderUtil.etag;
+import static com.company.mscategory.util.render.RenderUtil.gzip;
+import static com.company.mscategory.util.search.SearchConstraints.SEARCH_DEFAULT_LIMIT;
+import static com.company.mscategory.util.search.SearchConstraints.SEARCH_MAX_LIMIT;
+import static com.company.mscategory.util.tree.TreeConstraints.NO_NODE;
 
-@Log
+@Measured
 @Service
 @RequiredArgsConstructor
 public class CategoryServiceHandler implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final CacheServiceHandler cacheServiceHandler;
+    private final CategoryChangeServiceHandler categoryChangeServiceHandler;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final CategoryMetrics categoryMetrics;
+    private final Object treeSnapshotLock = new Object();
+    private volatile TreeSnapshot treeSnapshot;
 
     @Override
     public List<CategoryTreeNodeResponse> getCategories() {
-        var categoriesFromCache = cacheServiceHandler.getCategoriesFromCache();
-        if (categoriesFromCache == null) {
-            try {
-                categoriesFromCache = cacheServiceHandler.saveCategoriesToCache().get();
-            } catch (InterruptedException | ExecutionException e) {
-                return List.of();
-            }
+        return CATEGORY_MAPPER.buildCategoryTree(loadTreeSnapshot().categorySnapshot);
+    }
+
+    @Override
+    public RenderedCategoryTree getRenderedCategories(RenderFormat format) {
+        var cachedCategories = loadCategories();
+        var snapshot = loadTreeSnapshot(cachedCategories.getCategories());
+        var renderedTree = snapshot.renderedTrees.computeIfAbsent(format, key -> renderCategoryTree(snapshot, key));
+        if (cachedCategories.isDegraded()) {
+            return renderedTree.withDegradedSnapshotTime(cachedCategories.getDegradedSnapshotTime());
         }
-        return CATEGORY_MAPPER.buildCategoryTree(categoriesFromCache);
+        return renderedTree;
+    }
+
+    @Override
+    public CategoryTreeNodeResponse getCategory(Long categoryId) {
+        var category = findCachedCategory(categoryId);
+        if (category != null) {
+            return category;
+        }
+        return categoryRepository.findById(categoryId)
+                .filter(categoryEntity -> categoryEntity.getStatus() != CategoryStatus.DELETED)
+                .map(CategoryTreeNodeResponse::new)
+                .orElseThrow(() -> new NotFoundException(String.format(CATEGORY_NOT_FOUND_MESSAGE, categoryId),
+                        CATEGORY_NOT_FOUND_CODE));
+    }
+
+    @Override
+    public CategoryTreeNodeResponse getCategoryTree(Long categoryId, Integer depth) {
+        var categorySnapshot = loadTreeSnapshot().categorySnapshot;
+        return CATEGORY_MAPPER.copySubtree(categorySnapshot, findIndexedNode(categorySnapshot, categoryId),
+                depth == null ? Integer.MAX_VALUE : Math.max(0, depth));
+    }
+
+    @Override
+    public List<CategoryTreeNodeResponse> getCategoryPath(Long categoryId) {
+        var categorySnapshot = loadTreeSnapshot().categorySnapshot;
+        return CATEGORY_MAPPER.buildAncestorPath(categorySnapshot, findIndexedNode(categorySnapshot, categoryId));
+    }
+
+    @Override
+    public List<Long> getDescendantIds(Long categoryId) {
+        var categorySnapshot = loadTreeSnapshot().categorySnapshot;
+        return CATEGORY_MAPPER.collectDescendantIds(categorySnapshot, findIndexedNode(categorySnapshot, categoryId));
+    }
+
+    @Override
+    public List<CategorySearchResponse> searchCategories(String query, Integer limit) {
+        var snapshot = loadTreeSnapshot();
+        var boundedLimit = limit == null ? SEARCH_DEFAULT_LIMIT : Math.min(Math.max(limit, 1), SEARCH_MAX_LIMIT);
+        return Arrays.stream(snapshot.searchIndex.search(query, boundedLimit))
+                .mapToObj(node -> CATEGORY_MAPPER.mapToCategorySearchResponse(snapshot.categorySnapshot, node))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CategoryWriter prepareCategoryTree() {
+        var categorySnapshot = loadTreeSnapshot().categorySnapshot;
+        return outputStream -> {
+            try (var generator = createGenerator(outputStream)) {
+                CategoryStreamWriter.writeTree(generator, categorySnapshot);
+            }
+        };
+    }
+
+    @Override
+    public CategoryWriter prepareCategoriesAsNdjson() {
+        var categorySnapshot = loadTreeSnapshot().categorySnapshot;
+        return outputStream -> {
+            try (var generator = createGenerator(outputStream)) {
+                CategoryStreamWriter.writeFlat(generator, categorySnapshot);
+            }
+        };
     }
 
     @Transactional
@@ -52,49 +164,240 @@ public class CategoryServiceHandler implements CategoryService {
         var allCategories = new ArrayList<CategoryEntity>();
         allCategories.addAll(CATEGORY_MAPPER.mapBaseCategoryDetailToListCategoryEntity(separationResult.getBaseCategories()));
         allCategories.addAll(CATEGORY_MAPPER.mapSubCategoryDetailToListCategoryEntity(separationResult.getSubCategories()));
-        categoryRepository.saveAll(allCategories);
-        cacheServiceHandler.saveCategoriesToCache();
+        var basePaths = fetchBasePathsIfExist(allCategories);
+        allCategories.forEach(categoryEntity -> {
+            categoryEntity.setId(categoryRepository.reserveId(categoryEntity));
+            categoryEntity.setPath(CATEGORY_MAPPER.buildPath(
+                    categoryEntity.getBaseId() == null ? null : basePaths.get(categoryEntity.getBaseId()), categoryEntity.getId()));
+            categoryRepository.insert(categoryEntity);
+        });
+        categoryChangeServiceHandler.recordUpserts(allCategories.stream()
+                .map(CategoryEntity::getId)
+                .collect(Collectors.toList()));
+        applicationEventPublisher.publishEvent(CategoryCacheRefreshEvent.delta(allCategories, List.of()));
     }
 
     @Transactional
     @Override
     public void updateCategory(Long categoryId, CategoryUpdateRequest categoryUpdateRequest) {
-        var categoryEntity = fetchCategoryEntityIfExist(categoryId);
+        var baseId = categoryUpdateRequest.getBaseId();
+        var categories = fetchCategoryEntitiesIfExist(baseId == null ? List.of(categoryId) : List.of(categoryId, baseId));
+        var categoryEntity = categories.get(categoryId);
         categoryEntity.setName(categoryUpdateRequest.getName());
         categoryEntity.setPicture(categoryUpdateRequest.getPicture());
+        var oldPath = categoryEntity.getPath();
         if (categoryUpdateRequest.getBaseId() != null) {
-            fetchCategoryEntityIfExist(categoryUpdateRequest.getBaseId());
+            var baseCategory = categories.get(baseId);
+            if (CATEGORY_MAPPER.isSameOrDescendantPath(baseCategory.getPath(), oldPath)) {
+                throw new CategoryCycleException(String.format(CATEGORY_CYCLE_MESSAGE, categoryId, baseCategory.getId()),
+                        CATEGORY_CYCLE_CODE);
+            }
             categoryEntity.setBaseId(categoryUpdateRequest.getBaseId());
+            categoryEntity.setPath(CATEGORY_MAPPER.buildPath(baseCategory.getPath(), categoryId));
         } else {
             categoryEntity.setBaseId(null);
+            categoryEntity.setPath(CATEGORY_MAPPER.buildPath(null, categoryId));
         }
         categoryRepository.save(categoryEntity);
-        cacheServiceHandler.saveCategoriesToCache();
+        if (oldPath != null && !oldPath.equals(categoryEntity.getPath())) {
+            categoryRepository.movePath(oldPath, categoryEntity.getPath());
+        }
+        categoryChangeServiceHandler.recordUpserts(List.of(categoryId));
+        applicationEventPublisher.publishEvent(CategoryCacheRefreshEvent.delta(List.of(categoryEntity), List.of()));
+    }
+
+    @Transactional
+    @Override
+    public void updateCategories(List<CategoryBatchUpdateDetail> categoryDetails) {
+        var categoryIds = new LinkedHashSet<Long>();
+        categoryDetails.forEach(categoryDetail -> {
+            if (!categoryIds.add(categoryDetail.getId())) {
+                throw new InvalidCategoryBatchException(String.format(DUPLICATE_BATCH_ID_MESSAGE, categoryDetail.getId()),
+                        INVALID_CATEGORY_BATCH_CODE);
+            }
+        });
+        var fetchIds = new LinkedHashSet<>(categoryIds);
+        categoryDetails.stream()
+                .map(CategoryBatchUpdateDetail::getBaseId)
+                .filter(Objects::nonNull)
+                .forEach(fetchIds::add);
+        var categories = fetchCategoryEntitiesIfExist(new ArrayList<>(fetchIds));
+        var parents = CATEGORY_MAPPER.buildParentIndex(categories.values());
+        categoryDetails.forEach(categoryDetail -> parents.put(categoryDetail.getId(), categoryDetail.getBaseId()));
+        var cycle = CATEGORY_MAPPER.findCycle(parents, categoryIds);
+        if (!cycle.isEmpty()) {
+            throw new CategoryCycleException(String.format(CATEGORY_BATCH_CYCLE_MESSAGE, cycle), CATEGORY_CYCLE_CODE);
+        }
+        var resolvedPaths = new HashMap<Long, String>();
+        var changedCategories = new ArrayList<CategoryEntity>();
+        var oldPaths = new ArrayList<String>();
+        var newPaths = new ArrayList<String>();
+        categoryDetails.forEach(categoryDetail -> {
+            var categoryEntity = categories.get(categoryDetail.getId());
+            var oldPath = categoryEntity.getPath();
+            var newPath = CATEGORY_MAPPER.resolvePath(parents, categoryEntity.getId(), resolvedPaths);
+            categoryEntity.setName(categoryDetail.getName());
+            categoryEntity.setPicture(categoryDetail.getPicture());
+            categoryEntity.setBaseId(categoryDetail.getBaseId());
+            categoryEntity.setPath(newPath);
+            changedCategories.add(categoryEntity);
+            if (oldPath != null && !oldPath.equals(newPath)) {
+                oldPaths.add(oldPath);
+                newPaths.add(newPath);
+            }
+        });
+        categoryRepository.saveAll(changedCategories);
+        if (!oldPaths.isEmpty()) {
+            categoryRepository.movePaths(String.join(",", oldPaths), String.join(",", newPaths));
+        }
+        categoryChangeServiceHandler.recordUpserts(new ArrayList<>(categoryIds));
+        applicationEventPublisher.publishEvent(CategoryCacheRefreshEvent.delta(changedCategories, List.of()));
     }
 
     @Transactional
     @Override
     public void deleteCategory(Long categoryId) {
-        var categoryEntity = fetchCategoryEntityIfExist(categoryId);
-        var entitiesToUpdate = new ArrayList<CategoryEntity>();
-        if (categoryEntity.getBaseId() == null) {
-            var subCategories = categoryRepository.findByBaseId(categoryId);
-            subCategories.forEach(subCategory -> {
-                subCategory.setStatus(CategoryStatus.DELETED);
-                entitiesToUpdate.add(subCategory);
-            });
-        } else {
+        var cachedCategory = findCachedCategory(categoryId);
+        if (cachedCategory != null && cachedCategory.getBaseId() != null) {
             throw new CannotDeleteSubCategoryException(CANNOT_DELETE_SUBCATEGORY_MESSAGE + categoryId, CANNOT_DELETE_SUBCATEGORY_CODE);
         }
-        categoryEntity.setStatus(CategoryStatus.DELETED);
-        entitiesToUpdate.add(categoryEntity);
-        categoryRepository.saveAll(entitiesToUpdate);
-        cacheServiceHandler.saveCategoriesToCache();
+        var deletedIds = categoryRepository.softDeleteSubtree(categoryId).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+        if (deletedIds.isEmpty()) {
+            var categoryEntity = fetchCategoryEntityIfExist(categoryId);
+            if (categoryEntity.getBaseId() != null) {
+                throw new CannotDeleteSubCategoryException(CANNOT_DELETE_SUBCATEGORY_MESSAGE + categoryId, CANNOT_DELETE_SUBCATEGORY_CODE);
+            }
+            return;
+        }
+        categoryChangeServiceHandler.recordDeletes(deletedIds);
+        applicationEventPublisher.publishEvent(CategoryCacheRefreshEvent.delta(List.of(), deletedIds));
+    }
+
+    private CategoryTreeNodeResponse findCachedCategory(Long categoryId) {
+        var snapshot = treeSnapshot;
+        var localCategories = cacheServiceHandler.peekLocalCategories();
+        if (snapshot != null && localCategories != null
+                && snapshot.matches(localCategories, cacheServiceHandler.getCategoriesVersion(localCategories))) {
+            var node = snapshot.categorySnapshot.indexOf(categoryId);
+            if (node != NO_NODE) {
+                return CATEGORY_MAPPER.mapToCategoryTreeNodeResponse(snapshot.categorySnapshot, node);
+            }
+        }
+        var categoryEntity = cacheServiceHandler.getCategoryFromCache(categoryId);
+        return categoryEntity == null ? null : new CategoryTreeNodeResponse(categoryEntity);
+    }
+
+    private int findIndexedNode(CategorySnapshot categorySnapshot, Long categoryId) {
+        var node = categorySnapshot.indexOf(categoryId);
+        if (node == NO_NODE) {
+            throw new NotFoundException(String.format(CATEGORY_NOT_FOUND_MESSAGE, categoryId), CATEGORY_NOT_FOUND_CODE);
+        }
+        return node;
+    }
+
+    private CachedCategories loadCategories() {
+        var categoriesFromCache = cacheServiceHandler.getCategoriesFromCache();
+        if (categoriesFromCache != null) {
+            return categoriesFromCache;
+        }
+        try {
+            return new CachedCategories(cacheServiceHandler.loadCategoriesOnMiss().get(), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CategoryReadUnavailableException(CATEGORY_LOAD_FAILED_MESSAGE, CATEGORY_READ_UNAVAILABLE_CODE, e);
+        } catch (ExecutionException e) {
+            throw new CategoryReadUnavailableException(CATEGORY_LOAD_FAILED_MESSAGE, CATEGORY_READ_UNAVAILABLE_CODE, e.getCause());
+        }
+    }
+
+    private TreeSnapshot loadTreeSnapshot() {
+        return loadTreeSnapshot(loadCategories().getCategories());
+    }
+
+    private TreeSnapshot loadTreeSnapshot(List<CategoryEntity> categories) {
+        var version = cacheServiceHandler.getCategoriesVersion(categories);
+        var snapshot = treeSnapshot;
+        if (snapshot != null && snapshot.matches(categories, version)) {
+            return snapshot;
+        }
+        synchronized (treeSnapshotLock) {
+            snapshot = treeSnapshot;
+            if (snapshot == null || !snapshot.matches(categories, version)) {
+                var categorySnapshot = categoryMetrics.recordTreeBuild(() -> CategorySnapshot.build(categories));
+                snapshot = new TreeSnapshot(categories, version, categorySnapshot, CategorySearchIndex.build(categorySnapshot));
+                treeSnapshot = snapshot;
+            }
+            return snapshot;
+        }
+    }
+
+    private JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+        return objectMapper.getFactory().createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private RenderedCategoryTree renderCategoryTree(TreeSnapshot snapshot, RenderFormat format) {
+        var outputStream = new ByteArrayOutputStream();
+        try (var generator = format.getFactory().createGenerator(outputStream)) {
+            CategoryStreamWriter.writeTree(generator, snapshot.categorySnapshot);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        var body = outputStream.toByteArray();
+        var gzipBody = gzip(body);
+        return new RenderedCategoryTree(body, gzipBody, etag(body), etag(gzipBody), snapshot.version, null);
     }
 
     private CategoryEntity fetchCategoryEntityIfExist(Long categoryId) {
         return categoryRepository.findById(categoryId).orElseThrow(() -> new NotFoundException(
                 CATEGORY_NOT_FOUND_MESSAGE, CATEGORY_NOT_FOUND_CODE));
     }
-}
 
+    private Map<Long, String> fetchBasePathsIfExist(List<CategoryEntity> categories) {
+        var baseIds = categories.stream()
+                .map(CategoryEntity::getBaseId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (baseIds.isEmpty()) {
+            return Map.of();
+        }
+        var basePaths = new HashMap<Long, String>();
+        fetchCategoryEntitiesIfExist(baseIds).forEach((baseId, baseCategory) -> basePaths.put(baseId, baseCategory.getPath()));
+        return basePaths;
+    }
+
+    private Map<Long, CategoryEntity> fetchCategoryEntitiesIfExist(List<Long> categoryIds) {
+        var categories = categoryRepository.findAllById(categoryIds).stream()
+                .collect(Collectors.toMap(CategoryEntity::getId, Function.identity()));
+        categoryIds.stream()
+                .filter(categoryId -> !categories.containsKey(categoryId))
+                .findFirst()
+                .ifPresent(categoryId -> {
+                    throw new NotFoundException(String.format(CATEGORY_NOT_FOUND_MESSAGE, categoryId), CATEGORY_NOT_FOUND_CODE);
+                });
+        return categories;
+    }
+
+    private static class TreeSnapshot {
+        private final List<CategoryEntity> categories;
+        private final long version;
+        private final CategorySnapshot categorySnapshot;
+        private final Map<RenderFormat, RenderedCategoryTree> renderedTrees = new ConcurrentHashMap<>();
+        private final CategorySearchIndex searchIndex;
+
+        private TreeSnapshot(List<CategoryEntity> categories, long version, CategorySnapshot categorySnapshot,
+                             CategorySearchIndex searchIndex) {
+            this.categories = categories;
+            this.version = version;
+            this.categorySnapshot = categorySnapshot;
+            this.searchIndex = searchIndex;
+        }
+
+        private boolean matches(List<CategoryEntity> categories, long version) {
+            return version == CACHE_UNKNOWN_VERSION ? this.categories == categories : this.version == version;
+        }
+    }
+}
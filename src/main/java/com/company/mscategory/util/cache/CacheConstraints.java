@@ -7,4 +7,20 @@ public interface CacheConstraints {
     String CACHE_KEY = "ms-category:categories:";
     Long CACHE_EXPIRATION_COUNT = 1L;
     TemporalUnit CACHE_EXPIRATION_UNIT = ChronoUnit.DAYS;
+    String CACHE_MAP_KEY = "ms-category:categories:by-id";
+    long CACHE_RECONCILIATION_DELAY_MILLIS = 300_000L;
+    String CACHE_LOCK_KEY = "ms-category:categories:lock";
+    long CACHE_LOCK_WAIT_MILLIS = 5_000L;
+    long CACHE_LOCK_LEASE_MILLIS = 30_000L;
+    long CACHE_SOFT_EXPIRATION_MILLIS = 3_600_000L;
+    String CACHE_VERSION_KEY = "ms-category:categories:version";
+    long CACHE_UNKNOWN_VERSION = -1L;
+    String CACHE_INVALIDATION_TOPIC = "ms-category:categories:invalidation";
+    Integer LOCAL_CACHE_MAX_SIZE = 16;
+    Long LOCAL_CACHE_EXPIRATION_COUNT = 5L;
+    TemporalUnit LOCAL_CACHE_EXPIRATION_UNIT = ChronoUnit.MINUTES;
+    long CACHE_REFRESH_DEBOUNCE_MILLIS = 250L;
+    int CACHE_REFRESH_MAX_PENDING = 10_000;
+    int LOCAL_SNAPSHOT_MAGIC = 0x43534E50;
+    int LOCAL_SNAPSHOT_HEADER_BYTES = 20;
 }
@@ -1,26 +1,135 @@
 package com.company.mscategory.util.cache;
 
+import com.company.mscategory.util.metrics.CategoryMetrics;
 import lombok.RequiredArgsConstructor;
+import org.redisson.api.BatchOptions;
 import org.redisson.api.RBucket;
+import org.redisson.api.RMap;
+import org.redisson.api.RMapAsync;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.temporal.TemporalUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Component
 @RequiredArgsConstructor
 public class CacheUtil {
-    private final RedissonClient redissonClient;
+    private final ObjectProvider<RedissonClient> redissonClientProvider;
+    private final CategoryMetrics categoryMetrics;
 
     public <T> T getBucket(String cacheKey) {
-        RBucket<T> bucket = redissonClient.getBucket(cacheKey);
+        RBucket<T> bucket = redisson().getBucket(cacheKey);
         return bucket == null ? null : bucket.get();
     }
 
     public <T> void saveToCache(String key, T value, Long expireTime, TemporalUnit temporalUnit) {
-        var bucket = redissonClient.getBucket(key);
+        var bucket = redisson().getBucket(key);
         bucket.set(value);
         bucket.expire(Duration.of(expireTime, temporalUnit));
     }
+
+    public <T> T getBucket(String cacheKey, Codec codec) {
+        RBucket<T> bucket = redisson().getBucket(cacheKey, codec);
+        return bucket == null ? null : bucket.get();
+    }
+
+    public <T> void saveToCache(String key, T value, Codec codec, Long expireTime, TemporalUnit temporalUnit) {
+        RBucket<T> bucket = redisson().getBucket(key, codec);
+        bucket.set(value);
+        bucket.expire(Duration.of(expireTime, temporalUnit));
+    }
+
+    public <K, V> List<V> getMapValues(String key, Codec codec) {
+        RMap<K, V> map = redisson().getMap(key, codec);
+        var values = categoryMetrics.recordRedis("readAllValues", map::readAllValues);
+        return values.isEmpty() ? null : new ArrayList<>(values);
+    }
+
+    public <K, V> V getMapValue(String key, K field, Codec codec) {
+        RMap<K, V> map = redisson().getMap(key, codec);
+        return categoryMetrics.recordRedis("get", () -> map.get(field));
+    }
+
+    public int getMapSize(String key, Codec codec) {
+        return categoryMetrics.recordRedis("size", () -> redisson().getMap(key, codec).size());
+    }
+
+    public boolean exists(String key) {
+        return redisson().getKeys().countExists(key) > 0;
+    }
+
+    public long remainTimeToLive(String key) {
+        return redisson().getKeys().remainTimeToLive(key);
+    }
+
+    public boolean tryLock(String key, long waitTime, long leaseTime) {
+        try {
+            return redisson().getLock(key).tryLock(waitTime, leaseTime, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void unlock(String key) {
+        var lock = redisson().getLock(key);
+        if (lock.isHeldByCurrentThread()) {
+            lock.unlock();
+        }
+    }
+
+    public <K, V> void replaceMap(String key, Map<K, V> entries, Codec codec, Long expireTime, TemporalUnit temporalUnit) {
+        var batch = redisson().createBatch(BatchOptions.defaults().executionMode(BatchOptions.ExecutionMode.IN_MEMORY_ATOMIC));
+        RMapAsync<K, V> map = batch.getMap(key, codec);
+        map.deleteAsync();
+        if (!entries.isEmpty()) {
+            map.putAllAsync(entries);
+        }
+        map.expireAsync(Duration.of(expireTime, temporalUnit));
+        categoryMetrics.recordRedis("replaceMap", batch::execute);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <K, V> void patchMap(String key, Map<K, V> upserts, Collection<K> removedKeys, Codec codec,
+                                Long expireTime, TemporalUnit temporalUnit) {
+        var batch = redisson().createBatch(BatchOptions.defaults().executionMode(BatchOptions.ExecutionMode.IN_MEMORY_ATOMIC));
+        RMapAsync<K, V> map = batch.getMap(key, codec);
+        if (!upserts.isEmpty()) {
+            map.putAllAsync(upserts);
+        }
+        if (!removedKeys.isEmpty()) {
+            map.fastRemoveAsync((K[]) removedKeys.toArray());
+        }
+        map.expireAsync(Duration.of(expireTime, temporalUnit));
+        categoryMetrics.recordRedis("patchMap", batch::execute);
+    }
+
+    public long getVersion(String versionKey) {
+        return redisson().getAtomicLong(versionKey).get();
+    }
+
+    public long incrementVersion(String versionKey) {
+        return redisson().getAtomicLong(versionKey).incrementAndGet();
+    }
+
+    public <T> void publish(String topic, T message) {
+        redisson().getTopic(topic).publish(message);
+    }
+
+    public <T> void subscribe(String topic, Class<T> messageType, Consumer<T> listener) {
+        redisson().getTopic(topic).addListener(messageType, (channel, message) -> listener.accept(message));
+    }
+
+    private RedissonClient redisson() {
+        return redissonClientProvider.getObject();
+    }
 }
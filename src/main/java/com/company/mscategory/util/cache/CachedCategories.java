@@ -0,0 +1,19 @@
+package com.company.mscategory.util.cache;
+
+import com.company.mscategory.dao.entity.CategoryEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CachedCategories {
+    private final List<CategoryEntity> categories;
+    private final Instant degradedSnapshotTime;
+
+    public boolean isDegraded() {
+        return degradedSnapshotTime != null;
+    }
+}
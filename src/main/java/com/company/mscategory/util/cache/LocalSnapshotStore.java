@@ -0,0 +1,127 @@
+package com.company.mscategory.util.cache;
+
+import com.company.mscategory.dao.entity.CategoryEntity;
+import com.company.mscategory.util.cache.codec.CategoryCodec;
+import io.netty.buffer.Unpooled;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.company.mscategory.util.cache.CacheConstraints.LOCAL_SNAPSHOT_HEADER_BYTES;
+import static com.company.mscategory.util.cache.CacheConstraints.LOCAL_SNAPSHOT_MAGIC;
+
+@Slf4j
+@Component
+public class LocalSnapshotStore {
+    private final Path snapshotPath;
+    private final ScheduledExecutorService cacheRefreshExecutor;
+    private final AtomicLong persistedVersion = new AtomicLong(-1);
+    private volatile LocalSnapshot snapshot;
+    private volatile boolean loadAttempted;
+
+    public LocalSnapshotStore(@Value("${ms-category.cache.snapshot-path}") Path snapshotPath,
+                              ScheduledExecutorService cacheRefreshExecutor) {
+        this.snapshotPath = snapshotPath;
+        this.cacheRefreshExecutor = cacheRefreshExecutor;
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        load();
+    }
+
+    public void persist(List<CategoryEntity> categories, long version) {
+        if (persistedVersion.getAndSet(version) == version) {
+            return;
+        }
+        var current = new LocalSnapshot(categories, version, Instant.now());
+        snapshot = current;
+        cacheRefreshExecutor.execute(() -> write(current));
+    }
+
+    public LocalSnapshot load() {
+        var current = snapshot;
+        if (current != null || loadAttempted) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null && !loadAttempted) {
+                snapshot = read();
+                loadAttempted = true;
+            }
+            return snapshot;
+        }
+    }
+
+    private void write(LocalSnapshot current) {
+        if (current != snapshot) {
+            return;
+        }
+        var payload = CategoryCodec.INSTANCE.getValueEncoder().encode(current.getCategories());
+        try {
+            Files.createDirectories(snapshotPath.toAbsolutePath().getParent());
+            var temporaryPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            try (var channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                var header = ByteBuffer.allocate(LOCAL_SNAPSHOT_HEADER_BYTES)
+                        .putInt(LOCAL_SNAPSHOT_MAGIC)
+                        .putLong(current.getVersion())
+                        .putLong(current.getSavedAt().toEpochMilli())
+                        .flip();
+                channel.write(new ByteBuffer[]{header, payload.nioBuffer()});
+                channel.force(false);
+            }
+            Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException ex) {
+            log.error("Failed to write local category snapshot to: {}", snapshotPath, ex);
+        } finally {
+            payload.release();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private LocalSnapshot read() {
+        if (!Files.isRegularFile(snapshotPath)) {
+            return null;
+        }
+        try {
+            var buffer = ByteBuffer.wrap(Files.readAllBytes(snapshotPath));
+            if (buffer.remaining() < LOCAL_SNAPSHOT_HEADER_BYTES || buffer.getInt() != LOCAL_SNAPSHOT_MAGIC) {
+                log.warn("Ignoring local category snapshot with an unknown format: {}", snapshotPath);
+                return null;
+            }
+            var version = buffer.getLong();
+            var savedAt = Instant.ofEpochMilli(buffer.getLong());
+            var categories = (List<CategoryEntity>) CategoryCodec.INSTANCE.getValueDecoder()
+                    .decode(Unpooled.wrappedBuffer(buffer.slice()), null);
+            log.info("Loaded local category snapshot version: {} saved at: {}", version, savedAt);
+            return new LocalSnapshot(categories, version, savedAt);
+        } catch (IOException | RuntimeException ex) {
+            log.error("Failed to read local category snapshot from: {}", snapshotPath, ex);
+            return null;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class LocalSnapshot {
+        private final List<CategoryEntity> categories;
+        private final long version;
+        private final Instant savedAt;
+    }
+}
@@ -0,0 +1,76 @@
+package com.company.mscategory.util.cache;
+
+import lombok.AllArgsConstructor;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_UNKNOWN_VERSION;
+
+public class NearCache<K, V> {
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong latestVersion = new AtomicLong();
+    private final int maxSize;
+    private final long timeToLiveNanos;
+
+    public NearCache(int maxSize, Duration timeToLive) {
+        this.maxSize = maxSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+    }
+
+    public V get(K key) {
+        var entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt > timeToLiveNanos) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    public long getVersion(K key, V value) {
+        var entry = entries.get(key);
+        return entry == null || entry.value != value ? CACHE_UNKNOWN_VERSION : entry.version;
+    }
+
+    public void put(K key, V value, long version) {
+        if (version < latestVersion.get()) {
+            return;
+        }
+        var entry = new Entry<>(value, version, System.nanoTime());
+        entries.put(key, entry);
+        if (version < latestVersion.get()) {
+            entries.remove(key, entry);
+        }
+        if (entries.size() > maxSize) {
+            evictOldest();
+        }
+    }
+
+    public void invalidate(long version) {
+        latestVersion.accumulateAndGet(version, Math::max);
+        entries.values().removeIf(entry -> entry.version < version);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void evictOldest() {
+        entries.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().loadedAt))
+                .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+    }
+
+    @AllArgsConstructor
+    private static class Entry<V> {
+        private final V value;
+        private final long version;
+        private final long loadedAt;
+    }
+}
@@ -0,0 +1,168 @@
+package com.company.mscategory.util.cache.codec;
+
+import com.company.mscategory.dao.entity.CategoryEntity;
+import com.company.mscategory.model.enums.CategoryStatus;
+import com.company.mscategory.util.metrics.CategoryMetrics;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.redisson.client.codec.BaseCodec;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_PAYLOAD_READ;
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_PAYLOAD_WRITE;
+
+public class CategoryCodec extends BaseCodec {
+    public static final CategoryCodec INSTANCE = new CategoryCodec(null);
+
+    static final byte MAGIC = (byte) 0xC7;
+    static final byte ENTRY_MAGIC = (byte) 0xC8;
+    static final byte SCHEMA_VERSION = 1;
+    private static final CategoryStatus[] STATUSES = CategoryStatus.values();
+
+    private final CategoryMetrics categoryMetrics;
+
+    private final Encoder encoder = value -> {
+        var out = encodeCategories(value);
+        recordPayload(CACHE_PAYLOAD_WRITE, out.readableBytes());
+        return out;
+    };
+    private final Decoder<Object> decoder = (in, state) -> {
+        recordPayload(CACHE_PAYLOAD_READ, in.readableBytes());
+        return decodeCategories(in);
+    };
+
+    public CategoryCodec(CategoryMetrics categoryMetrics) {
+        this.categoryMetrics = categoryMetrics;
+    }
+
+    @Override
+    public Decoder<Object> getValueDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public Encoder getValueEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return getClass().getClassLoader();
+    }
+
+    private void recordPayload(String direction, int bytes) {
+        if (categoryMetrics != null) {
+            categoryMetrics.recordCachePayload(direction, bytes);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ByteBuf encodeCategories(Object value) {
+        if (value instanceof CategoryEntity category) {
+            var out = ByteBufAllocator.DEFAULT.buffer(40);
+            out.writeByte(ENTRY_MAGIC);
+            out.writeByte(SCHEMA_VERSION);
+            writeCategory(out, category);
+            return out;
+        }
+        var categories = (List<CategoryEntity>) value;
+        var out = ByteBufAllocator.DEFAULT.buffer(16 + categories.size() * 32);
+        out.writeByte(MAGIC);
+        out.writeByte(SCHEMA_VERSION);
+        writeVarLong(out, categories.size());
+        for (var category : categories) {
+            writeCategory(out, category);
+        }
+        return out;
+    }
+
+    private Object decodeCategories(ByteBuf in) throws IOException {
+        var magic = in.readableBytes() < 2 ? 0 : in.getByte(in.readerIndex());
+        if (magic != MAGIC && magic != ENTRY_MAGIC) {
+            throw new IOException("Unknown category cache format: " + magic);
+        }
+        in.skipBytes(1);
+        var schemaVersion = in.readByte();
+        if (schemaVersion != SCHEMA_VERSION) {
+            throw new IOException("Unsupported category cache schema version: " + schemaVersion);
+        }
+        if (magic == ENTRY_MAGIC) {
+            return readCategory(in);
+        }
+        var size = (int) readVarLong(in);
+        var categories = new ArrayList<CategoryEntity>(size);
+        for (int i = 0; i < size; i++) {
+            categories.add(readCategory(in));
+        }
+        return categories;
+    }
+
+    private static void writeCategory(ByteBuf out, CategoryEntity category) {
+        writeVarLong(out, category.getId());
+        writeVarLong(out, category.getBaseId() == null ? 0 : category.getBaseId() + 1);
+        writeString(out, category.getName());
+        writeString(out, category.getPicture());
+        out.writeByte(category.getStatus() == null ? -1 : category.getStatus().ordinal());
+    }
+
+    private static CategoryEntity readCategory(ByteBuf in) {
+        var id = readVarLong(in);
+        var baseId = readVarLong(in);
+        var name = readString(in);
+        var picture = readString(in);
+        var status = in.readByte();
+        return CategoryEntity.builder()
+                .id(id)
+                .baseId(baseId == 0 ? null : baseId - 1)
+                .name(name)
+                .picture(picture)
+                .status(status < 0 ? null : STATUSES[status])
+                .build();
+    }
+
+    private static void writeString(ByteBuf out, String value) {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuf in) {
+        var length = (int) readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        var value = in.toString(in.readerIndex(), length - 1, StandardCharsets.UTF_8);
+        in.skipBytes(length - 1);
+        return value;
+    }
+
+    private static void writeVarLong(ByteBuf out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(ByteBuf in) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = in.readByte();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,10 @@
+package com.company.mscategory.util.changes;
+
+public interface ChangeLogConstraints {
+    int CHANGES_DEFAULT_LIMIT = 500;
+    int CHANGES_MAX_LIMIT = 5_000;
+    long CHANGE_LOG_RETENTION_DAYS = 30L;
+    long CHANGE_LOG_COMPACTION_DELAY_MILLIS = 3_600_000L;
+    String CHANGE_LOG_COMPACTION_LOCK_KEY = "ms-category:changes:compaction-lock";
+    long CHANGE_LOG_COMPACTION_LEASE_MILLIS = 600_000L;
+}
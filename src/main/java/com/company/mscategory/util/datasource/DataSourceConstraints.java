@@ -0,0 +1,11 @@
+package com.company.mscategory.util.datasource;
+
+public interface DataSourceConstraints {
+    String PRIMARY_ROUTE = "primary";
+    String REPLICA_ROUTE_PREFIX = "replica-";
+    long REPLICA_LAG_CHECK_DELAY_MILLIS = 5_000L;
+    long REPLICA_LAG_UNKNOWN = -1L;
+    String REPLICA_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() " +
+            "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+}
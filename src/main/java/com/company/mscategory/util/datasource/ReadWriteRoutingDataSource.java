@@ -0,0 +1,136 @@
+package com.company.mscategory.util.datasource;
+
+import com.company.mscategory.util.metrics.CategoryMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.company.mscategory.util.datasource.DataSourceConstraints.PRIMARY_ROUTE;
+import static com.company.mscategory.util.datasource.DataSourceConstraints.REPLICA_LAG_UNKNOWN;
+
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    private final List<ReplicaRoute> replicas = new ArrayList<>();
+    private final long readYourWritesWindowNanos;
+    private final long maxReplicaLagMillis;
+    private final String replicaLagQuery;
+    private final CategoryMetrics categoryMetrics;
+    private final AtomicLong lastWriteNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicaDataSources,
+                                      Duration readYourWritesWindow, Duration maxReplicaLag, String replicaLagQuery,
+                                      CategoryMetrics categoryMetrics) {
+        this.readYourWritesWindowNanos = readYourWritesWindow.toNanos();
+        this.maxReplicaLagMillis = maxReplicaLag.toMillis();
+        this.replicaLagQuery = replicaLagQuery;
+        this.categoryMetrics = categoryMetrics;
+        this.lastWriteNanos = new AtomicLong(System.nanoTime() - readYourWritesWindowNanos);
+        var targets = new HashMap<Object, Object>();
+        targets.put(PRIMARY_ROUTE, primary);
+        new LinkedHashMap<>(replicaDataSources).forEach((route, dataSource) -> {
+            targets.put(route, dataSource);
+            var replica = new ReplicaRoute(route, dataSource);
+            replicas.add(replica);
+            categoryMetrics.registerReplicaLag(route, replica, ReplicaRoute::getLagMillis);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        var route = selectRoute();
+        categoryMetrics.recordDataSourceRoute(route);
+        return route;
+    }
+
+    public void checkReplicaLag() {
+        replicas.forEach(replica -> {
+            try (var connection = replica.dataSource.getConnection();
+                 var statement = connection.createStatement();
+                 var resultSet = statement.executeQuery(replicaLagQuery)) {
+                replica.lagMillis = resultSet.next() ? resultSet.getLong(1) : REPLICA_LAG_UNKNOWN;
+            } catch (SQLException | RuntimeException ex) {
+                replica.lagMillis = REPLICA_LAG_UNKNOWN;
+                log.warn("Failed to check lag of {}, routing its reads to the primary", replica.route, ex);
+            }
+            var available = replica.lagMillis != REPLICA_LAG_UNKNOWN && replica.lagMillis <= maxReplicaLagMillis;
+            if (available != replica.available) {
+                log.info("Replica {} is now {} with lag of {} ms", replica.route, available ? "available" : "unavailable",
+                        replica.lagMillis);
+            }
+            replica.available = available;
+        });
+    }
+
+    public void close() {
+        getResolvedDataSources().values().forEach(dataSource -> {
+            if (dataSource instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) dataSource).close();
+                } catch (Exception ex) {
+                    log.warn("Failed to close data source {}", dataSource, ex);
+                }
+            }
+        });
+    }
+
+    private String selectRoute() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            markWrite();
+            return PRIMARY_ROUTE;
+        }
+        if (replicas.isEmpty() || System.nanoTime() - lastWriteNanos.get() < readYourWritesWindowNanos) {
+            return PRIMARY_ROUTE;
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            var replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            if (replica.available) {
+                return replica.route;
+            }
+        }
+        return PRIMARY_ROUTE;
+    }
+
+    private void markWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        lastWriteNanos.set(System.nanoTime());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lastWriteNanos.set(System.nanoTime());
+            }
+        });
+    }
+
+    private static class ReplicaRoute {
+        private final String route;
+        private final DataSource dataSource;
+        private volatile long lagMillis = REPLICA_LAG_UNKNOWN;
+        private volatile boolean available;
+
+        private ReplicaRoute(String route, DataSource dataSource) {
+            this.route = route;
+            this.dataSource = dataSource;
+        }
+
+        private long getLagMillis() {
+            return lagMillis;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.company.mscategory.util.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import static com.company.mscategory.util.datasource.DataSourceConstraints.REPLICA_LAG_CHECK_DELAY_MILLIS;
+
+@Component
+@RequiredArgsConstructor
+public class ReplicaLagMonitor {
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    @Scheduled(fixedDelay = REPLICA_LAG_CHECK_DELAY_MILLIS)
+    public void checkReplicaLag() {
+        routingDataSource.checkReplicaLag();
+    }
+}
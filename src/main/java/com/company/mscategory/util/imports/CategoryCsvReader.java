@@ -0,0 +1,140 @@
+package com.company.mscategory.util.imports;
+
+import com.company.mscategory.exception.InvalidCategoryImportException;
+import com.company.mscategory.model.request.CategoryImportRequest.CategoryImportDetail;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.company.mscategory.exception.ExceptionConstraints.INVALID_CATEGORY_IMPORT_CODE;
+import static com.company.mscategory.exception.ExceptionConstraints.INVALID_IMPORT_CSV_MESSAGE;
+import static com.company.mscategory.util.imports.ImportConstraints.CSV_BASE_ID_COLUMN;
+import static com.company.mscategory.util.imports.ImportConstraints.CSV_KEY_COLUMN;
+import static com.company.mscategory.util.imports.ImportConstraints.CSV_NAME_COLUMN;
+import static com.company.mscategory.util.imports.ImportConstraints.CSV_PARENT_KEY_COLUMN;
+import static com.company.mscategory.util.imports.ImportConstraints.CSV_PICTURE_COLUMN;
+
+public final class CategoryCsvReader {
+    private final Reader reader;
+    private int recordLine;
+    private int nextLine = 1;
+
+    private CategoryCsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    public static List<CategoryImportDetail> readImportDetails(Reader reader) throws IOException {
+        var csvReader = new CategoryCsvReader(reader);
+        var header = csvReader.nextRecord();
+        if (header == null) {
+            return List.of();
+        }
+        var columns = header.stream().map(String::trim).collect(Collectors.toList());
+        int keyColumn = requireColumn(columns, CSV_KEY_COLUMN);
+        int nameColumn = requireColumn(columns, CSV_NAME_COLUMN);
+        int pictureColumn = requireColumn(columns, CSV_PICTURE_COLUMN);
+        int parentKeyColumn = columns.indexOf(CSV_PARENT_KEY_COLUMN);
+        int baseIdColumn = columns.indexOf(CSV_BASE_ID_COLUMN);
+        var importDetails = new ArrayList<CategoryImportDetail>();
+        List<String> values;
+        while ((values = csvReader.nextRecord()) != null) {
+            int lineNumber = csvReader.recordLine;
+            if (values.size() == 1 && values.get(0).isBlank()) {
+                continue;
+            }
+            importDetails.add(new CategoryImportDetail(
+                    requireValue(values, keyColumn, lineNumber, CSV_KEY_COLUMN),
+                    optionalValue(values, parentKeyColumn),
+                    parseBaseId(optionalValue(values, baseIdColumn), lineNumber),
+                    requireValue(values, nameColumn, lineNumber, CSV_NAME_COLUMN),
+                    requireValue(values, pictureColumn, lineNumber, CSV_PICTURE_COLUMN)));
+        }
+        return importDetails;
+    }
+
+    private List<String> nextRecord() throws IOException {
+        int current = reader.read();
+        if (current == -1) {
+            return null;
+        }
+        recordLine = nextLine;
+        var values = new ArrayList<String>();
+        var value = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (current == -1) {
+                if (quoted) {
+                    throw invalidCsv(recordLine, "unterminated quote");
+                }
+                values.add(value.toString());
+                return values;
+            }
+            if (quoted) {
+                if (current == '"') {
+                    current = reader.read();
+                    if (current != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                    value.append('"');
+                } else {
+                    if (current == '\n') {
+                        nextLine++;
+                    }
+                    value.append((char) current);
+                }
+            } else if (current == '"') {
+                quoted = true;
+            } else if (current == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (current == '\n') {
+                nextLine++;
+                values.add(value.toString());
+                return values;
+            } else if (current != '\r') {
+                value.append((char) current);
+            }
+            current = reader.read();
+        }
+    }
+
+    private static int requireColumn(List<String> columns, String column) {
+        int index = columns.indexOf(column);
+        if (index < 0) {
+            throw invalidCsv(1, "missing column " + column);
+        }
+        return index;
+    }
+
+    private static String requireValue(List<String> values, int column, int lineNumber, String columnName) {
+        var value = optionalValue(values, column);
+        if (value == null) {
+            throw invalidCsv(lineNumber, columnName + " is blank");
+        }
+        return value;
+    }
+
+    private static String optionalValue(List<String> values, int column) {
+        if (column < 0 || column >= values.size() || values.get(column).isBlank()) {
+            return null;
+        }
+        return values.get(column).trim();
+    }
+
+    private static Long parseBaseId(String value, int lineNumber) {
+        try {
+            return value == null ? null : Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw invalidCsv(lineNumber, "baseId is not a number");
+        }
+    }
+
+    private static InvalidCategoryImportException invalidCsv(int lineNumber, String reason) {
+        return new InvalidCategoryImportException(String.format(INVALID_IMPORT_CSV_MESSAGE, lineNumber, reason),
+                INVALID_CATEGORY_IMPORT_CODE);
+    }
+}
@@ -0,0 +1,10 @@
+package com.company.mscategory.util.imports;
+
+public interface ImportConstraints {
+    int IMPORT_BATCH_SIZE = 500;
+    String CSV_KEY_COLUMN = "key";
+    String CSV_PARENT_KEY_COLUMN = "parentKey";
+    String CSV_BASE_ID_COLUMN = "baseId";
+    String CSV_NAME_COLUMN = "name";
+    String CSV_PICTURE_COLUMN = "picture";
+}
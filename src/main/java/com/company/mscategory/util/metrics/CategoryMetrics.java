@@ -0,0 +1,121 @@
+package com.company.mscategory.util.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_PAYLOAD_METRIC;
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_REDIS_METRIC;
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_REFRESH_EVENTS_METRIC;
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_REFRESH_LAG_METRIC;
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_REFRESH_PENDING_METRIC;
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_REQUEST_METRIC;
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_RESULT_FALLBACK;
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_RESULT_HIT;
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_RESULT_MISS;
+import static com.company.mscategory.util.metrics.MetricsConstraints.DATASOURCE_REPLICA_LAG_METRIC;
+import static com.company.mscategory.util.metrics.MetricsConstraints.DATASOURCE_ROUTE_METRIC;
+import static com.company.mscategory.util.metrics.MetricsConstraints.READ_REJECTION_METRIC;
+import static com.company.mscategory.util.metrics.MetricsConstraints.SERVICE_CALL_METRIC;
+import static com.company.mscategory.util.metrics.MetricsConstraints.TREE_BUILD_METRIC;
+
+@Component
+@RequiredArgsConstructor
+public class CategoryMetrics {
+    private final MeterRegistry meterRegistry;
+
+    public void recordServiceCall(String className, String methodName, String outcome, long durationNanos) {
+        Timer.builder(SERVICE_CALL_METRIC)
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> T recordTreeBuild(Supplier<T> treeBuilder) {
+        return meterRegistry.timer(TREE_BUILD_METRIC).record(treeBuilder);
+    }
+
+    public <T> T recordRedis(String operation, Supplier<T> redisCall) {
+        var start = System.nanoTime();
+        var outcome = "success";
+        try {
+            return redisCall.get();
+        } catch (RuntimeException ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            Timer.builder(CACHE_REDIS_METRIC)
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordRedis(String operation, Runnable redisCall) {
+        recordRedis(operation, () -> {
+            redisCall.run();
+            return null;
+        });
+    }
+
+    public void recordCachePayload(String direction, int bytes) {
+        DistributionSummary.builder(CACHE_PAYLOAD_METRIC)
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    public <T> void registerCacheRefreshQueue(T queue, ToDoubleFunction<T> pendingCount) {
+        meterRegistry.gauge(CACHE_REFRESH_PENDING_METRIC, List.of(), queue, pendingCount);
+    }
+
+    public void cacheRefreshEnqueued() {
+        meterRegistry.counter(CACHE_REFRESH_EVENTS_METRIC).increment();
+    }
+
+    public void recordCacheRefreshLag(long lagNanos) {
+        meterRegistry.timer(CACHE_REFRESH_LAG_METRIC).record(lagNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDataSourceRoute(String route) {
+        meterRegistry.counter(DATASOURCE_ROUTE_METRIC, "route", route).increment();
+    }
+
+    public <T> void registerReplicaLag(String route, T replica, ToDoubleFunction<T> lagMillis) {
+        meterRegistry.gauge(DATASOURCE_REPLICA_LAG_METRIC, List.of(Tag.of("route", route)), replica, lagMillis);
+    }
+
+    public void monitorReadExecutor(ExecutorService executor, String name) {
+        new ExecutorServiceMetrics(executor, name, List.of()).bindTo(meterRegistry);
+    }
+
+    public void recordReadRejection(String reason) {
+        meterRegistry.counter(READ_REJECTION_METRIC, "reason", reason).increment();
+    }
+
+    public void cacheHit(String tier) {
+        meterRegistry.counter(CACHE_REQUEST_METRIC, "tier", tier, "result", CACHE_RESULT_HIT).increment();
+    }
+
+    public void cacheMiss(String tier) {
+        meterRegistry.counter(CACHE_REQUEST_METRIC, "tier", tier, "result", CACHE_RESULT_MISS).increment();
+    }
+
+    public void cacheFallback(String tier) {
+        meterRegistry.counter(CACHE_REQUEST_METRIC, "tier", tier, "result", CACHE_RESULT_FALLBACK).increment();
+    }
+}
@@ -0,0 +1,23 @@
+package com.company.mscategory.util.metrics;
+
+public interface MetricsConstraints {
+    String SERVICE_CALL_METRIC = "ms-category.service.calls";
+    String TREE_BUILD_METRIC = "ms-category.tree.build";
+    String CACHE_REQUEST_METRIC = "ms-category.cache.requests";
+    String CACHE_REDIS_METRIC = "ms-category.cache.redis";
+    String CACHE_PAYLOAD_METRIC = "ms-category.cache.payload";
+    String CACHE_REFRESH_PENDING_METRIC = "ms-category.cache.refresh.pending";
+    String CACHE_REFRESH_EVENTS_METRIC = "ms-category.cache.refresh.events";
+    String CACHE_REFRESH_LAG_METRIC = "ms-category.cache.refresh.lag";
+    String DATASOURCE_ROUTE_METRIC = "ms-category.datasource.routes";
+    String DATASOURCE_REPLICA_LAG_METRIC = "ms-category.datasource.replica.lag";
+    String READ_REJECTION_METRIC = "ms-category.read.rejections";
+    String CACHE_TIER_LOCAL = "local";
+    String CACHE_TIER_REDIS = "redis";
+    String CACHE_TIER_SNAPSHOT = "snapshot";
+    String CACHE_RESULT_HIT = "hit";
+    String CACHE_RESULT_MISS = "miss";
+    String CACHE_RESULT_FALLBACK = "fallback";
+    String CACHE_PAYLOAD_READ = "read";
+    String CACHE_PAYLOAD_WRITE = "write";
+}
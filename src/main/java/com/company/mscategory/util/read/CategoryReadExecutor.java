@@ -0,0 +1,79 @@
+package com.company.mscategory.util.read;
+
+import com.company.mscategory.exception.CategoryReadUnavailableException;
+import com.company.mscategory.util.metrics.CategoryMetrics;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.company.mscategory.exception.ExceptionConstraints.CATEGORY_READ_QUEUE_FULL_MESSAGE;
+import static com.company.mscategory.exception.ExceptionConstraints.CATEGORY_READ_TIMEOUT_MESSAGE;
+import static com.company.mscategory.exception.ExceptionConstraints.CATEGORY_READ_UNAVAILABLE_CODE;
+import static com.company.mscategory.util.read.ReadConstraints.READ_EXECUTOR_NAME;
+import static com.company.mscategory.util.read.ReadConstraints.READ_REJECTION_QUEUE_FULL;
+import static com.company.mscategory.util.read.ReadConstraints.READ_REJECTION_TIMEOUT;
+import static com.company.mscategory.util.read.ReadConstraints.READ_THREAD_PREFIX;
+
+public class CategoryReadExecutor {
+    private final boolean async;
+    private final long timeoutMillis;
+    private final CategoryMetrics categoryMetrics;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledThreadPoolExecutor timeouts;
+
+    public CategoryReadExecutor(boolean async, int poolSize, int queueCapacity, Duration timeout,
+                                CategoryMetrics categoryMetrics) {
+        this.async = async;
+        this.timeoutMillis = timeout.toMillis();
+        this.categoryMetrics = categoryMetrics;
+        var threadFactory = new CustomizableThreadFactory(READ_THREAD_PREFIX);
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+        this.timeouts = new ScheduledThreadPoolExecutor(1, threadFactory);
+        this.timeouts.setRemoveOnCancelPolicy(true);
+        categoryMetrics.monitorReadExecutor(executor, READ_EXECUTOR_NAME);
+    }
+
+    public <T> CompletableFuture<T> read(Supplier<T> reader) {
+        if (!async) {
+            return CompletableFuture.completedFuture(reader.get());
+        }
+        var result = new CompletableFuture<T>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                try {
+                    result.complete(reader.get());
+                } catch (RuntimeException ex) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            categoryMetrics.recordReadRejection(READ_REJECTION_QUEUE_FULL);
+            throw new CategoryReadUnavailableException(CATEGORY_READ_QUEUE_FULL_MESSAGE, CATEGORY_READ_UNAVAILABLE_CODE);
+        }
+        var timeout = timeouts.schedule(() -> {
+            if (result.completeExceptionally(new CategoryReadUnavailableException(
+                    String.format(CATEGORY_READ_TIMEOUT_MESSAGE, timeoutMillis), CATEGORY_READ_UNAVAILABLE_CODE))) {
+                task.cancel(true);
+                categoryMetrics.recordReadRejection(READ_REJECTION_TIMEOUT);
+            }
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+        result.whenComplete((value, ex) -> timeout.cancel(false));
+        return result;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        timeouts.shutdownNow();
+    }
+}
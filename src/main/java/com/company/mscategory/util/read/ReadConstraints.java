@@ -0,0 +1,8 @@
+package com.company.mscategory.util.read;
+
+public interface ReadConstraints {
+    String READ_THREAD_PREFIX = "category-read-";
+    String READ_EXECUTOR_NAME = "category-read";
+    String READ_REJECTION_TIMEOUT = "timeout";
+    String READ_REJECTION_QUEUE_FULL = "queue-full";
+}
@@ -0,0 +1,72 @@
+package com.company.mscategory.util.render;
+
+import com.company.mscategory.util.tree.CategorySnapshot;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public final class CategoryStreamWriter {
+
+    private CategoryStreamWriter() {
+    }
+
+    public static void writeTree(JsonGenerator generator, CategorySnapshot snapshot) throws IOException {
+        var nodes = new int[16];
+        var positions = new int[16];
+        int depth = 0;
+        generator.writeStartArray();
+        int rootPosition = 0;
+        while (rootPosition < snapshot.getRootCount() || depth > 0) {
+            int node;
+            if (depth == 0) {
+                node = snapshot.getRoot(rootPosition++);
+            } else if (positions[depth - 1] < snapshot.getChildCount(nodes[depth - 1])) {
+                node = snapshot.getChild(nodes[depth - 1], positions[depth - 1]++);
+            } else {
+                depth--;
+                generator.writeEndArray();
+                generator.writeEndObject();
+                continue;
+            }
+            generator.writeStartObject();
+            writeFields(generator, snapshot, node);
+            if (snapshot.getChildCount(node) == 0) {
+                generator.writeNullField("subCategories");
+                generator.writeEndObject();
+            } else {
+                generator.writeArrayFieldStart("subCategories");
+                if (depth == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, depth * 2);
+                    positions = Arrays.copyOf(positions, depth * 2);
+                }
+                nodes[depth] = node;
+                positions[depth++] = 0;
+            }
+        }
+        generator.writeEndArray();
+        generator.flush();
+    }
+
+    public static void writeFlat(JsonGenerator generator, CategorySnapshot snapshot) throws IOException {
+        generator.setRootValueSeparator(null);
+        for (int node = 0; node < snapshot.size(); node++) {
+            generator.writeStartObject();
+            writeFields(generator, snapshot, node);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private static void writeFields(JsonGenerator generator, CategorySnapshot snapshot, int node) throws IOException {
+        generator.writeNumberField("id", snapshot.getId(node));
+        generator.writeStringField("name", snapshot.getName(node));
+        if (snapshot.hasBaseId(node)) {
+            generator.writeNumberField("baseId", snapshot.getBaseId(node));
+        } else {
+            generator.writeNullField("baseId");
+        }
+        generator.writeStringField("picture", snapshot.getPicture(node));
+    }
+}
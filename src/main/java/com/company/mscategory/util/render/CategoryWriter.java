@@ -0,0 +1,9 @@
+package com.company.mscategory.util.render;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+@FunctionalInterface
+public interface CategoryWriter {
+    void write(OutputStream outputStream) throws IOException;
+}
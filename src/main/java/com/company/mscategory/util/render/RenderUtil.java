@@ -0,0 +1,73 @@
+package com.company.mscategory.util.render;
+
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+public final class RenderUtil {
+    private static final int ETAG_HASH_BYTES = 16;
+    private static final String GZIP_CODING = "gzip";
+    private static final String WILDCARD_CODING = "*";
+
+    private RenderUtil() {
+    }
+
+    public static byte[] gzip(byte[] body) {
+        var outputStream = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (var gzipStream = new GZIPOutputStream(outputStream)) {
+            gzipStream.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        var gzipQuality = -1.0;
+        var wildcardQuality = -1.0;
+        for (var coding : StringUtils.tokenizeToStringArray(acceptEncoding, ",")) {
+            var parameters = StringUtils.tokenizeToStringArray(coding, ";");
+            if (parameters.length == 0) {
+                continue;
+            }
+            var quality = 1.0;
+            for (int i = 1; i < parameters.length; i++) {
+                if (parameters[i].regionMatches(true, 0, "q=", 0, 2)) {
+                    quality = parseQuality(parameters[i].substring(2));
+                }
+            }
+            if (GZIP_CODING.equalsIgnoreCase(parameters[0])) {
+                gzipQuality = quality;
+            } else if (WILDCARD_CODING.equals(parameters[0])) {
+                wildcardQuality = quality;
+            }
+        }
+        return gzipQuality >= 0 ? gzipQuality > 0 : wildcardQuality > 0;
+    }
+
+    public static String etag(byte[] body) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, ETAG_HASH_BYTES) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double parseQuality(String quality) {
+        try {
+            return Double.parseDouble(quality.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.company.mscategory.util.search;
+
+import com.company.mscategory.util.tree.CategorySnapshot;
+
+import java.text.Normalizer;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static com.company.mscategory.util.search.SearchConstraints.SEARCH_GRAM_SIZE;
+
+public final class CategorySearchIndex {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final String[] names;
+    private final String[] keys;
+    private final int[] keyNodes;
+    private final Map<String, int[]> grams;
+
+    private CategorySearchIndex(String[] names, String[] keys, int[] keyNodes, Map<String, int[]> grams) {
+        this.names = names;
+        this.keys = keys;
+        this.keyNodes = keyNodes;
+        this.grams = grams;
+    }
+
+    public static CategorySearchIndex build(CategorySnapshot snapshot) {
+        var names = new String[snapshot.size()];
+        var entries = new ArrayList<SimpleEntry<String, Integer>>(names.length * 2);
+        var gramPostings = new HashMap<String, List<Integer>>();
+        for (int node = 0; node < names.length; node++) {
+            var name = normalize(snapshot.getName(node));
+            names[node] = name;
+            for (int start = 0; start < name.length(); start++) {
+                if (Character.isLetterOrDigit(name.charAt(start))
+                        && (start == 0 || !Character.isLetterOrDigit(name.charAt(start - 1)))) {
+                    entries.add(new SimpleEntry<>(name.substring(start), node));
+                }
+            }
+            for (int start = 0; start + SEARCH_GRAM_SIZE <= name.length(); start++) {
+                var posting = gramPostings.computeIfAbsent(name.substring(start, start + SEARCH_GRAM_SIZE),
+                        gram -> new ArrayList<>());
+                if (posting.isEmpty() || posting.get(posting.size() - 1) != node) {
+                    posting.add(node);
+                }
+            }
+        }
+        entries.sort(Comparator.<SimpleEntry<String, Integer>, String>comparing(SimpleEntry::getKey)
+                .thenComparing(SimpleEntry::getValue));
+        var keys = new String[entries.size()];
+        var keyNodes = new int[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            keys[i] = entries.get(i).getKey();
+            keyNodes[i] = entries.get(i).getValue();
+        }
+        var grams = new HashMap<String, int[]>(gramPostings.size() * 4 / 3 + 1);
+        gramPostings.forEach((gram, posting) -> grams.put(gram, posting.stream().mapToInt(Integer::intValue).toArray()));
+        return new CategorySearchIndex(names, keys, keyNodes, grams);
+    }
+
+    public int[] search(String query, int limit) {
+        var normalized = normalize(query).trim();
+        if (normalized.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+        var matches = new LinkedHashSet<Integer>();
+        for (int i = lowerBound(normalized); i < keys.length && matches.size() < limit
+                && keys[i].startsWith(normalized); i++) {
+            matches.add(keyNodes[i]);
+        }
+        if (matches.size() < limit && normalized.length() >= SEARCH_GRAM_SIZE) {
+            addInfixMatches(normalized, limit, matches);
+        }
+        return matches.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private void addInfixMatches(String normalized, int limit, LinkedHashSet<Integer> matches) {
+        int[] candidates = null;
+        for (int start = 0; start + SEARCH_GRAM_SIZE <= normalized.length(); start++) {
+            var posting = grams.get(normalized.substring(start, start + SEARCH_GRAM_SIZE));
+            if (posting == null) {
+                return;
+            }
+            if (candidates == null || posting.length < candidates.length) {
+                candidates = posting;
+            }
+        }
+        for (int i = 0; i < candidates.length && matches.size() < limit; i++) {
+            if (names[candidates[i]].contains(normalized)) {
+                matches.add(candidates[i]);
+            }
+        }
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,7 @@
+package com.company.mscategory.util.search;
+
+public interface SearchConstraints {
+    int SEARCH_DEFAULT_LIMIT = 10;
+    int SEARCH_MAX_LIMIT = 100;
+    int SEARCH_GRAM_SIZE = 3;
+}
@@ -0,0 +1,210 @@
+package com.company.mscategory.util.tree;
+
+import com.company.mscategory.dao.entity.CategoryEntity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.company.mscategory.model.enums.CategoryStatus.DELETED;
+import static com.company.mscategory.util.tree.TreeConstraints.NO_BASE_ID;
+import static com.company.mscategory.util.tree.TreeConstraints.NO_NODE;
+
+public final class CategorySnapshot {
+    private final long[] ids;
+    private final long[] baseIds;
+    private final String[] names;
+    private final String[] pictures;
+    private final long[] sortedIds;
+    private final int[] sortedNodes;
+    private final int[] parents;
+    private final int[] childOffsets;
+    private final int[] children;
+    private final int[] roots;
+    private final int[] subtreeSizes;
+
+    private CategorySnapshot(long[] ids, long[] baseIds, String[] names, String[] pictures, long[] sortedIds,
+                             int[] sortedNodes, int[] parents, int[] childOffsets, int[] children, int[] roots,
+                             int[] subtreeSizes) {
+        this.ids = ids;
+        this.baseIds = baseIds;
+        this.names = names;
+        this.pictures = pictures;
+        this.sortedIds = sortedIds;
+        this.sortedNodes = sortedNodes;
+        this.parents = parents;
+        this.childOffsets = childOffsets;
+        this.children = children;
+        this.roots = roots;
+        this.subtreeSizes = subtreeSizes;
+    }
+
+    public static CategorySnapshot build(List<CategoryEntity> categories) {
+        var active = categories.stream()
+                .filter(category -> category.getStatus() != DELETED)
+                .toArray(CategoryEntity[]::new);
+        int size = active.length;
+        var ids = new long[size];
+        var baseIds = new long[size];
+        var names = new String[size];
+        var pictures = new String[size];
+        var strings = new HashMap<String, String>();
+        int rootCount = 0;
+        for (int node = 0; node < size; node++) {
+            ids[node] = active[node].getId();
+            baseIds[node] = active[node].getBaseId() == null ? NO_BASE_ID : active[node].getBaseId();
+            names[node] = deduplicate(strings, active[node].getName());
+            pictures[node] = deduplicate(strings, active[node].getPicture());
+            if (baseIds[node] == NO_BASE_ID) {
+                rootCount++;
+            }
+        }
+        var sortedIds = ids.clone();
+        Arrays.sort(sortedIds);
+        var sortedNodes = new int[size];
+        for (int node = 0; node < size; node++) {
+            sortedNodes[Arrays.binarySearch(sortedIds, ids[node])] = node;
+        }
+        var parents = new int[size];
+        for (int node = 0; node < size; node++) {
+            parents[node] = baseIds[node] == NO_BASE_ID || baseIds[node] == ids[node]
+                    ? NO_NODE
+                    : find(sortedIds, sortedNodes, baseIds[node]);
+        }
+        cutCycles(parents);
+        var childOffsets = new int[size + 1];
+        for (int node = 0; node < size; node++) {
+            if (parents[node] != NO_NODE) {
+                childOffsets[parents[node] + 1]++;
+            }
+        }
+        for (int node = 0; node < size; node++) {
+            childOffsets[node + 1] += childOffsets[node];
+        }
+        var children = new int[childOffsets[size]];
+        var nextChild = Arrays.copyOf(childOffsets, size);
+        var roots = new int[rootCount];
+        int nextRoot = 0;
+        for (int node = 0; node < size; node++) {
+            if (parents[node] != NO_NODE) {
+                children[nextChild[parents[node]]++] = node;
+            } else if (baseIds[node] == NO_BASE_ID) {
+                roots[nextRoot++] = node;
+            }
+        }
+        var subtreeSizes = countSubtreeSizes(parents, childOffsets, children);
+        return new CategorySnapshot(ids, baseIds, names, pictures, sortedIds, sortedNodes, parents, childOffsets,
+                children, roots, subtreeSizes);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int indexOf(long id) {
+        return find(sortedIds, sortedNodes, id);
+    }
+
+    public long getId(int node) {
+        return ids[node];
+    }
+
+    public boolean hasBaseId(int node) {
+        return baseIds[node] != NO_BASE_ID;
+    }
+
+    public long getBaseId(int node) {
+        return baseIds[node];
+    }
+
+    public String getName(int node) {
+        return names[node];
+    }
+
+    public String getPicture(int node) {
+        return pictures[node];
+    }
+
+    public int getParent(int node) {
+        return parents[node];
+    }
+
+    public int getChildCount(int node) {
+        return childOffsets[node + 1] - childOffsets[node];
+    }
+
+    public int getChild(int node, int position) {
+        return children[childOffsets[node] + position];
+    }
+
+    public int getRootCount() {
+        return roots.length;
+    }
+
+    public int getRoot(int position) {
+        return roots[position];
+    }
+
+    public int getSubtreeSize(int node) {
+        return subtreeSizes[node];
+    }
+
+    private static int find(long[] sortedIds, int[] sortedNodes, long id) {
+        int position = Arrays.binarySearch(sortedIds, id);
+        return position < 0 ? NO_NODE : sortedNodes[position];
+    }
+
+    private static String deduplicate(Map<String, String> strings, String value) {
+        return value == null ? null : strings.computeIfAbsent(value, key -> key);
+    }
+
+    private static void cutCycles(int[] parents) {
+        var states = new byte[parents.length];
+        for (int start = 0; start < parents.length; start++) {
+            int node = start;
+            int last = NO_NODE;
+            while (node != NO_NODE && states[node] == 0) {
+                states[node] = 1;
+                last = node;
+                node = parents[node];
+            }
+            if (node != NO_NODE && states[node] == 1) {
+                parents[last] = NO_NODE;
+            }
+            for (node = start; node != NO_NODE && states[node] == 1; node = parents[node]) {
+                states[node] = 2;
+            }
+        }
+    }
+
+    private static int[] countSubtreeSizes(int[] parents, int[] childOffsets, int[] children) {
+        int size = parents.length;
+        var order = new int[size];
+        var stack = new int[size];
+        int visited = 0;
+        for (int top = 0; top < size; top++) {
+            if (parents[top] != NO_NODE) {
+                continue;
+            }
+            int depth = 0;
+            stack[depth++] = top;
+            while (depth > 0) {
+                int node = stack[--depth];
+                order[visited++] = node;
+                for (int child = childOffsets[node]; child < childOffsets[node + 1]; child++) {
+                    stack[depth++] = children[child];
+                }
+            }
+        }
+        var subtreeSizes = new int[size];
+        Arrays.fill(subtreeSizes, 1);
+        for (int i = visited - 1; i >= 0; i--) {
+            int node = order[i];
+            if (parents[node] != NO_NODE) {
+                subtreeSizes[parents[node]] += subtreeSizes[node];
+            }
+        }
+        return subtreeSizes;
+    }
+}
@@ -0,0 +1,6 @@
+package com.company.mscategory.util.tree;
+
+public interface TreeConstraints {
+    int NO_NODE = -1;
+    long NO_BASE_ID = Long.MIN_VALUE;
+}
@@ -3,35 +3,58 @@ package com.company.mscategory.controller
 
 import com.company.mscategory.exception.ErrorHandler
 import com.company.mscategory.exception.NotFoundException
+import com.company.mscategory.model.request.CategoryBatchUpdateRequest
+import com.company.mscategory.model.request.CategoryBatchUpdateRequest.CategoryBatchUpdateDetail
 import com.company.mscategory.model.request.CategoryRequest
 import com.company.mscategory.model.request.CategoryUpdateRequest
+import com.company.mscategory.model.response.CategorySearchResponse
 import com.company.mscategory.model.response.CategoryTreeNodeResponse
+import com.company.mscategory.model.response.RenderedCategoryTree
+import com.company.mscategory.model.response.CategoryChangesResponse
+import com.company.mscategory.model.response.CategoryImportResponse
+import com.company.mscategory.service.concrete.CategoryChangeServiceHandler
+import com.company.mscategory.service.concrete.CategoryImportServiceHandler
 import com.company.mscategory.service.concrete.CategoryServiceHandler
+import com.company.mscategory.util.metrics.CategoryMetrics
+import com.company.mscategory.util.read.CategoryReadExecutor
+import com.company.mscategory.util.render.CategoryWriter
+import com.company.mscategory.util.render.RenderFormat
 import com.fasterxml.jackson.databind.ObjectMapper
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import org.springframework.http.MediaType
+import org.springframework.mock.web.MockMultipartFile
 import org.springframework.test.web.servlet.MockMvc
+import org.springframework.test.web.servlet.ResultActions
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder
 import org.springframework.test.web.servlet.setup.MockMvcBuilders
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean
 import spock.lang.Specification
 
+import java.time.Duration
+import java.time.Instant
+
 import static org.hamcrest.Matchers.containsString
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*
 
 class CategoryControllerTest extends Specification {
     private CategoryServiceHandler categoryServiceHandler
+    private CategoryImportServiceHandler categoryImportServiceHandler
+    private CategoryChangeServiceHandler categoryChangeServiceHandler
+    private CategoryReadExecutor categoryReadExecutor
     private MockMvc mockMvc
     private ObjectMapper objectMapper = new ObjectMapper()
 
     void setup() {
         categoryServiceHandler = Mock()
-        def categoryController = new CategoryController(categoryServiceHandler)
-        def validatorFactory = new LocalValidatorFactoryBean()
-        validatorFactory.afterPropertiesSet()
-        mockMvc = MockMvcBuilders.standaloneSetup(categoryController)
-                .setControllerAdvice(new ErrorHandler())
-                .setValidator(validatorFactory)
-                .build()
+        categoryImportServiceHandler = Mock()
+        categoryChangeServiceHandler = Mock()
+        categoryReadExecutor = readExecutor(Duration.ofSeconds(5))
+        mockMvc = buildMockMvc(categoryReadExecutor)
+    }
+
+    void cleanup() {
+        categoryReadExecutor.shutdown()
     }
 
     //GET TEST METHODS
@@ -39,16 +62,237 @@ class CategoryControllerTest extends Specification {
         given:
         def categoryResponse = new CategoryTreeNodeResponse(id: 1L, name: "CategoryName", baseId: null, picture: "picture.jpg", subCategories: [])
         def expectedJson = objectMapper.writeValueAsString([categoryResponse])
-        categoryServiceHandler.getCategories() >> [categoryResponse]
+        categoryServiceHandler.getRenderedCategories(RenderFormat.JSON) >> new RenderedCategoryTree(expectedJson.bytes, new byte[0], '"abc"', '"abc-gzip"', 7L, null)
 
         when:
-        def response = mockMvc.perform(get("/v1/categories")
+        def response = performRead(get("/v1/categories")
                 .contentType(MediaType.APPLICATION_JSON))
 
         then:
         response.andExpect(status().isOk())
+                .andExpect(header().string("ETag", '"abc"'))
+                .andExpect(header().string("X-Catalog-Version", "7"))
+                .andExpect(header().string("Cache-Control", "max-age=0, public, s-maxage=86400"))
                 .andExpect(content().json(expectedJson))
     }
+
+    def "getCategories should keep responses with an unknown catalog version out of the edge cache"() {
+        given:
+        categoryServiceHandler.getRenderedCategories(RenderFormat.JSON) >> new RenderedCategoryTree("[]".bytes, new byte[0], '"abc"', '"abc-gzip"', -1L, null)
+
+        when:
+        def response = performRead(get("/v1/categories"))
+
+        then:
+        response.andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Catalog-Version"))
+                .andExpect(header().doesNotExist("Cache-Control"))
+    }
+
+    def "getCategories should flag responses served from the local snapshot as stale"() {
+        given:
+        categoryServiceHandler.getRenderedCategories(RenderFormat.JSON) >> new RenderedCategoryTree("[]".bytes, new byte[0], '"abc"', '"abc-gzip"', 7L,
+                Instant.parse("2024-01-01T00:00:00Z"))
+
+        when:
+        def response = performRead(get("/v1/categories"))
+
+        then:
+        response.andExpect(status().isOk())
+                .andExpect(header().string("Warning", '110 - "Response is Stale"'))
+                .andExpect(header().string("X-Catalog-Snapshot-Time", "2024-01-01T00:00:00Z"))
+                .andExpect(header().exists("Age"))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(header().doesNotExist("X-Catalog-Version"))
+    }
+
+    def "getCategories should negotiate a binary format from the Accept header"() {
+        given:
+        categoryServiceHandler.getRenderedCategories(RenderFormat.SMILE) >> new RenderedCategoryTree([0x3a, 0x29] as byte[], new byte[0], '"smile"', '"smile-gzip"', 7L, null)
+
+        when:
+        def response = performRead(get("/v1/categories")
+                .header("Accept", "application/x-jackson-smile, application/json;q=0.5"))
+
+        then:
+        response.andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andExpect(header().string("ETag", '"smile"'))
+                .andExpect(header().stringValues("Vary", "Accept", "Accept-Encoding"))
+                .andExpect(content().bytes([0x3a, 0x29] as byte[]))
+    }
+
+    def "getCategories should not send gzip to a client that refuses it with q=0"() {
+        given:
+        categoryServiceHandler.getRenderedCategories(RenderFormat.JSON) >> new RenderedCategoryTree("[]".bytes, [0x1f, 0x8b] as byte[], '"abc"', '"abc-gzip"', 7L, null)
+
+        when:
+        def response = performRead(get("/v1/categories")
+                .header("Accept-Encoding", "gzip;q=0, identity"))
+
+        then:
+        response.andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", '"abc"'))
+                .andExpect(content().string("[]"))
+    }
+
+    def "getCategories should return 304 NOT_MODIFIED when the etag matches"() {
+        given:
+        categoryServiceHandler.getRenderedCategories(RenderFormat.JSON) >> new RenderedCategoryTree("[]".bytes, new byte[0], '"abc"', '"abc-gzip"', 7L, null)
+
+        when:
+        def response = performRead(get("/v1/categories")
+                .header("If-None-Match", '"abc"'))
+
+        then:
+        response.andExpect(status().isNotModified())
+                .andExpect(content().string(""))
+    }
+
+    def "getCategory should return the single category"() {
+        given:
+        categoryServiceHandler.getCategory(2L) >> new CategoryTreeNodeResponse(id: 2L, name: "Fiction", baseId: 1L, picture: "fiction.jpg")
+
+        when:
+        def response = performRead(get("/v1/categories/2"))
+
+        then:
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath('$.name').value("Fiction"))
+                .andExpect(jsonPath('$.baseId').value(1))
+    }
+
+    def "getCategoryTree should return the subtree limited to the requested depth"() {
+        given:
+        def node = new CategoryTreeNodeResponse(id: 2L, name: "Fiction", baseId: 1L, picture: "fiction.jpg", subCategories: [])
+        categoryServiceHandler.getCategoryTree(2L, 1) >> node
+
+        when:
+        def response = performRead(get("/v1/categories/2/tree").param("depth", "1"))
+
+        then:
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath('$.name').value("Fiction"))
+    }
+
+    def "getCategoryPath should return the breadcrumb of the category"() {
+        given:
+        categoryServiceHandler.getCategoryPath(2L) >> [
+                new CategoryTreeNodeResponse(id: 1L, name: "Books", baseId: null, picture: "books.jpg"),
+                new CategoryTreeNodeResponse(id: 2L, name: "Fiction", baseId: 1L, picture: "fiction.jpg")
+        ]
+
+        when:
+        def response = performRead(get("/v1/categories/2/path"))
+
+        then:
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath('$[0].name').value("Books"))
+                .andExpect(jsonPath('$[1].name').value("Fiction"))
+    }
+
+    def "getDescendantIds should return the ids below the category"() {
+        given:
+        categoryServiceHandler.getDescendantIds(1L) >> [2L, 3L]
+
+        when:
+        def response = performRead(get("/v1/categories/1/descendants"))
+
+        then:
+        response.andExpect(status().isOk())
+                .andExpect(content().json("[2,3]"))
+    }
+
+    def "getChanges should return the delta since the requested version"() {
+        given:
+        categoryChangeServiceHandler.getChanges(10L, null) >> new CategoryChangesResponse(12L, false, false,
+                [new CategoryTreeNodeResponse(id: 2L, name: "Fiction", baseId: 1L, picture: "fiction.jpg")], [3L])
+
+        when:
+        def response = mockMvc.perform(get("/v1/categories/changes").param("since", "10"))
+
+        then:
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath('$.version').value(12))
+                .andExpect(jsonPath('$.resyncRequired').value(false))
+                .andExpect(jsonPath('$.upserts[0].name').value("Fiction"))
+                .andExpect(jsonPath('$.deletes[0]').value(3))
+    }
+
+    def "searchCategories should return the matching categories"() {
+        given:
+        categoryServiceHandler.searchCategories("fic", 5) >> [
+                new CategorySearchResponse(2L, "Fiction", 1L, "fiction.jpg", ["Books"])
+        ]
+
+        when:
+        def response = performRead(get("/v1/categories/search").param("q", "fic").param("limit", "5"))
+
+        then:
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath('$[0].name').value("Fiction"))
+                .andExpect(jsonPath('$[0].path[0]').value("Books"))
+    }
+
+    def "getCategories should stream NDJSON when format=ndjson is requested"() {
+        given:
+        categoryServiceHandler.prepareCategoriesAsNdjson() >> { { OutputStream outputStream ->
+            outputStream.write('{"id":1}\n'.bytes)
+        } as CategoryWriter }
+
+        when:
+        def snapshotResult = mockMvc.perform(get("/v1/categories").param("format", "ndjson")).andReturn()
+        def streamResult = mockMvc.perform(asyncDispatch(snapshotResult)).andReturn()
+        def response = mockMvc.perform(asyncDispatch(streamResult))
+
+        then:
+        response.andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string('{"id":1}\n'))
+    }
+
+    def "getCategories should shed streamed reads with 503 when the snapshot does not load in time"() {
+        given: "a read path with a short timeout and a slow snapshot load"
+        def slowReadExecutor = readExecutor(Duration.ofMillis(50))
+        def slowMockMvc = buildMockMvc(slowReadExecutor)
+        categoryServiceHandler.prepareCategoryTree() >> {
+            Thread.sleep(500)
+            ({ OutputStream outputStream -> } as CategoryWriter)
+        }
+
+        when:
+        def asyncResult = slowMockMvc.perform(get("/v1/categories").param("format", "stream")).andReturn()
+        def response = slowMockMvc.perform(asyncDispatch(asyncResult))
+
+        then:
+        response.andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath('$.code').value("CATEGORY_READ_UNAVAILABLE"))
+
+        cleanup:
+        slowReadExecutor.shutdown()
+    }
+
+    def "getCategory should return 503 when the read does not finish in time"() {
+        given: "a read path with a short timeout and a slow service"
+        def slowReadExecutor = readExecutor(Duration.ofMillis(50))
+        def slowMockMvc = buildMockMvc(slowReadExecutor)
+        categoryServiceHandler.getCategory(2L) >> {
+            Thread.sleep(500)
+            new CategoryTreeNodeResponse(id: 2L, name: "Fiction")
+        }
+
+        when:
+        def asyncResult = slowMockMvc.perform(get("/v1/categories/2")).andReturn()
+        def response = slowMockMvc.perform(asyncDispatch(asyncResult))
+
+        then:
+        response.andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath('$.code').value("CATEGORY_READ_UNAVAILABLE"))
+
+        cleanup:
+        slowReadExecutor.shutdown()
+    }
     //GET TEST METHODS
 
 
@@ -121,6 +365,27 @@ class CategoryControllerTest extends Specification {
                 .andExpect(jsonPath('$.message').value("[categories: Categories list cannot be null]"))
     }
 
+    def "importCategories() method should import a CSV upload and return HTTP 201"() {
+        given: "a CSV file with a parent and a child"
+        def csv = "key,parentKey,baseId,name,picture\nbooks,,,Books,books.jpg\nfiction,books,,\"Fiction, Novels\",fiction.jpg\n"
+        def file = new MockMultipartFile("file", "categories.csv", "text/csv", csv.bytes)
+
+        when: "the file is uploaded to /v1/categories/import"
+        def result = mockMvc.perform(multipart("/v1/categories/import").file(file))
+
+        then: "the response status is 201 CREATED"
+        result.andExpect(status().isCreated())
+                .andExpect(jsonPath('$.importedCount').value(2))
+
+        and: "the parsed rows are passed to the import service"
+        1 * categoryImportServiceHandler.importCategories(_) >> { List details ->
+            assert details[0].size() == 2
+            assert details[0][1].parentKey == "books"
+            assert details[0][1].name == "Fiction, Novels"
+            new CategoryImportResponse(2, [books: 1L, fiction: 2L])
+        }
+    }
+
     //UPDATE TEST METHODS
     def "should return HTTP 204 NO_CONTENT when category is successfully updated"() {
         given: "a valid CategoryUpdateRequest"
@@ -164,6 +429,39 @@ class CategoryControllerTest extends Specification {
                 .andExpect(jsonPath('$.message').value(containsString("name: Category name cannot be blank")))
                 .andExpect(jsonPath('$.message').value(containsString("picture: Category picture cannot be blank")))
     }
+    def "updateCategories() method should apply the batch and return HTTP 204"() {
+        given: "a batch of category moves"
+        def requestBody = objectMapper.writeValueAsString(new CategoryBatchUpdateRequest([
+                new CategoryBatchUpdateDetail(2L, "Novels", 5L, "novels.jpg"),
+                new CategoryBatchUpdateDetail(3L, "Mystery", 2L, "mystery.jpg")
+        ]))
+
+        when: "PATCH request is made to /v1/categories endpoint"
+        def result = mockMvc.perform(patch("/v1/categories")
+                .contentType("application/json")
+                .content(requestBody))
+
+        then: "the response status is 204 NO_CONTENT"
+        result.andExpect(status().isNoContent())
+
+        and: "the whole batch is passed to the service in one call"
+        1 * categoryServiceHandler.updateCategories({ it*.id == [2L, 3L] && it*.baseId == [5L, 2L] })
+    }
+
+    def "updateCategories() method should return HTTP 400 when the batch is empty"() {
+        given: "an empty batch"
+        def requestBody = objectMapper.writeValueAsString(new CategoryBatchUpdateRequest([]))
+
+        when: "PATCH request is made to /v1/categories endpoint"
+        def result = mockMvc.perform(patch("/v1/categories")
+                .contentType("application/json")
+                .content(requestBody))
+
+        then: "the response status is 400 BAD_REQUEST and the service is not called"
+        result.andExpect(status().isBadRequest())
+                .andExpect(jsonPath('$.code').value("VALIDATION_EXCEPTION"))
+        0 * categoryServiceHandler.updateCategories(_)
+    }
     //UPDATE TEST METHODS
 
 
@@ -201,4 +499,24 @@ class CategoryControllerTest extends Specification {
                 .andExpect(jsonPath('$.message').value("Category not found"))
     }
     //DELETE TEST METHODS
-}
\ No newline at end of file
+
+    private ResultActions performRead(MockHttpServletRequestBuilder request) {
+        def asyncResult = mockMvc.perform(request).andReturn()
+        mockMvc.perform(asyncDispatch(asyncResult))
+    }
+
+    private MockMvc buildMockMvc(CategoryReadExecutor readExecutor) {
+        def categoryController = new CategoryController(categoryServiceHandler, categoryImportServiceHandler,
+                categoryChangeServiceHandler, readExecutor)
+        def validatorFactory = new LocalValidatorFactoryBean()
+        validatorFactory.afterPropertiesSet()
+        MockMvcBuilders.standaloneSetup(categoryController)
+                .setControllerAdvice(new ErrorHandler())
+                .setValidator(validatorFactory)
+                .build()
+    }
+
+    private static CategoryReadExecutor readExecutor(Duration timeout) {
+        new CategoryReadExecutor(true, 2, 10, timeout, new CategoryMetrics(new SimpleMeterRegistry()))
+    }
+}
@@ -0,0 +1,72 @@
+package com.company.mscategory.dao
+
+import com.company.mscategory.dao.repository.CategoryChangeRepository
+import com.company.mscategory.service.concrete.CategoryChangeServiceHandler
+import com.company.mscategory.util.cache.CacheUtil
+import org.spockframework.spring.SpringBean
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest
+import org.springframework.context.annotation.Import
+import org.springframework.data.domain.PageRequest
+import org.springframework.test.context.ContextConfiguration
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.annotation.Transactional
+import org.springframework.transaction.support.TransactionTemplate
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@Transactional(propagation = NOT_SUPPORTED)
+@Import(CategoryChangeServiceHandler)
+@ContextConfiguration(initializers = EmbeddedPostgresInitializer)
+class CategoryChangeOrderingTest extends Specification {
+    @SpringBean
+    CacheUtil cacheUtil = Mock()
+
+    @Autowired
+    CategoryChangeServiceHandler categoryChangeServiceHandler
+
+    @Autowired
+    CategoryChangeRepository categoryChangeRepository
+
+    @Autowired
+    PlatformTransactionManager transactionManager
+
+    def "change versions must follow commit order when two writers interleave"() {
+        given: "writer A records a change and keeps its transaction open"
+        def transactions = new TransactionTemplate(transactionManager)
+        def since = categoryChangeRepository.findLatestVersion() ?: 0L
+        def recorded = new CountDownLatch(1)
+        def commit = new CountDownLatch(1)
+        def writerA = CompletableFuture.runAsync {
+            transactions.executeWithoutResult {
+                categoryChangeServiceHandler.recordUpserts([-1L])
+                recorded.countDown()
+                commit.await(10, TimeUnit.SECONDS)
+            }
+        }
+        recorded.await(10, TimeUnit.SECONDS)
+
+        when: "writer B records a change while A is still open, then A commits"
+        def writerB = CompletableFuture.runAsync {
+            transactions.executeWithoutResult { categoryChangeServiceHandler.recordUpserts([-2L]) }
+        }
+        Thread.sleep(500)
+        def committedBeforeA = writerB.isDone()
+        commit.countDown()
+        writerA.get(10, TimeUnit.SECONDS)
+        writerB.get(10, TimeUnit.SECONDS)
+
+        then: "B waited for A, so a reader that passed B's version cannot miss A's change"
+        !committedBeforeA
+        categoryChangeRepository.findChangesSince(since, PageRequest.of(0, 10))*.categoryId == [-1L, -2L]
+    }
+}
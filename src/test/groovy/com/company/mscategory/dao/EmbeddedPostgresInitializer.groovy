@@ -0,0 +1,30 @@
+package com.company.mscategory.dao
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres
+import org.springframework.boot.test.util.TestPropertyValues
+import org.springframework.context.ApplicationContextInitializer
+import org.springframework.context.ConfigurableApplicationContext
+
+class EmbeddedPostgresInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+    private static EmbeddedPostgres postgres
+
+    @Override
+    void initialize(ConfigurableApplicationContext context) {
+        start()
+        TestPropertyValues.of(
+                "spring.datasource.url=${postgres.getJdbcUrl('postgres', 'postgres')}".toString(),
+                "spring.datasource.username=postgres",
+                "spring.datasource.password=postgres",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.show_sql=false"
+        ).applyTo(context)
+    }
+
+    private static synchronized void start() {
+        if (postgres != null) {
+            return
+        }
+        postgres = EmbeddedPostgres.start()
+        Runtime.runtime.addShutdownHook(new Thread({ postgres.close() }))
+    }
+}
@@ -0,0 +1,112 @@
+package com.company.mscategory.mapper
+
+import com.company.mscategory.dao.entity.CategoryEntity
+import com.company.mscategory.model.enums.CategoryStatus
+import com.company.mscategory.util.tree.CategorySnapshot
+import spock.lang.Specification
+
+import static com.company.mscategory.mapper.factory.CategoryMapper.CATEGORY_MAPPER
+
+class CategoryMapperTest extends Specification {
+
+    def "buildCategoryTree() method must attach categories of any depth"() {
+        given: "a three level hierarchy listed children first"
+        def categories = [
+                new CategoryEntity(id: 3L, name: "Mystery", baseId: 2L),
+                new CategoryEntity(id: 2L, name: "Fiction", baseId: 1L),
+                new CategoryEntity(id: 1L, name: "Books", baseId: null)
+        ]
+
+        when: "the tree is built"
+        def tree = CATEGORY_MAPPER.buildCategoryTree(categories)
+
+        then: "the grandchild is kept under its parent"
+        tree.size() == 1
+        tree[0].name == "Books"
+        tree[0].subCategories*.name == ["Fiction"]
+        tree[0].subCategories[0].subCategories*.name == ["Mystery"]
+        tree[0].subCategories[0].subCategories[0].subCategories == null
+    }
+
+    def "buildCategoryTree() method must drop orphans and self references"() {
+        given: "an orphan and a category that references itself"
+        def categories = [
+                new CategoryEntity(id: 1L, name: "Books", baseId: null),
+                new CategoryEntity(id: 2L, name: "Orphan", baseId: 99L),
+                new CategoryEntity(id: 3L, name: "Loop", baseId: 3L)
+        ]
+
+        when: "the tree is built"
+        def tree = CATEGORY_MAPPER.buildCategoryTree(categories)
+
+        then: "only the root is returned"
+        tree*.name == ["Books"]
+        tree[0].subCategories == null
+    }
+
+    def "buildCategoryTree() method must skip deleted categories"() {
+        given: "a deleted category among active ones"
+        def categories = [
+                new CategoryEntity(id: 1L, name: "Books", baseId: null, status: CategoryStatus.ACTIVE),
+                new CategoryEntity(id: 2L, name: "Fiction", baseId: 1L, status: CategoryStatus.DELETED),
+                new CategoryEntity(id: 3L, name: "Toys", baseId: null, status: CategoryStatus.DELETED)
+        ]
+
+        when: "the tree is built"
+        def tree = CATEGORY_MAPPER.buildCategoryTree(categories)
+
+        then: "deleted categories are not rendered"
+        tree*.name == ["Books"]
+        tree[0].subCategories == null
+    }
+
+    def "copySubtree() method must stop at the requested depth"() {
+        given: "a snapshot of a three level hierarchy"
+        def snapshot = CategorySnapshot.build([
+                new CategoryEntity(id: 1L, name: "Books", baseId: null),
+                new CategoryEntity(id: 2L, name: "Fiction", baseId: 1L),
+                new CategoryEntity(id: 3L, name: "Mystery", baseId: 2L)
+        ])
+
+        when: "the subtree is copied with depth 1"
+        def subtree = CATEGORY_MAPPER.copySubtree(snapshot, snapshot.indexOf(1L), 1)
+
+        then: "only direct children are included"
+        subtree.subCategories*.name == ["Fiction"]
+        subtree.subCategories[0].subCategories == null
+
+        and: "a deeper copy still reaches the grandchild"
+        CATEGORY_MAPPER.copySubtree(snapshot, snapshot.indexOf(2L), 1).subCategories*.name == ["Mystery"]
+    }
+
+    def "findCycle() method must report the categories that form a cycle"() {
+        given: "a parent index where 2 and 3 point at each other below root 1"
+        def parents = CATEGORY_MAPPER.buildParentIndex([
+                new CategoryEntity(id: 2L, path: "/1/2/"),
+                new CategoryEntity(id: 3L, path: "/1/3/")
+        ])
+        parents[2L] = 3L
+        parents[3L] = 2L
+
+        expect: "the cycle is found from any of its members"
+        CATEGORY_MAPPER.findCycle(parents, [2L, 3L]) == [2L, 3L]
+        CATEGORY_MAPPER.findCycle(parents, [1L]) == []
+    }
+
+    def "resolvePath() method must build paths from the updated parent index"() {
+        given: "a parent index where 2 is moved under 5 and 3 under 2"
+        def parents = CATEGORY_MAPPER.buildParentIndex([
+                new CategoryEntity(id: 2L, path: "/1/2/"),
+                new CategoryEntity(id: 3L, path: "/1/3/"),
+                new CategoryEntity(id: 5L, path: "/5/")
+        ])
+        parents[2L] = 5L
+        parents[3L] = 2L
+        def resolvedPaths = [:]
+
+        expect: "paths follow the new parents and are shared across calls"
+        CATEGORY_MAPPER.resolvePath(parents, 3L, resolvedPaths) == "/5/2/3/"
+        resolvedPaths == [5L: "/5/", 2L: "/5/2/", 3L: "/5/2/3/"]
+        CATEGORY_MAPPER.resolvePath(parents, 1L, resolvedPaths) == "/1/"
+    }
+}
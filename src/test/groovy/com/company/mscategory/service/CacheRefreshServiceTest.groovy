@@ -0,0 +1,70 @@
+package com.company.mscategory.service
+
+import com.company.mscategory.dao.entity.CategoryEntity
+import com.company.mscategory.model.event.CategoryCacheRefreshEvent
+import com.company.mscategory.service.concrete.CacheRefreshServiceHandler
+import com.company.mscategory.service.concrete.CacheServiceHandler
+import com.company.mscategory.util.metrics.CategoryMetrics
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_REFRESH_DEBOUNCE_MILLIS
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_REFRESH_MAX_PENDING
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_REFRESH_PENDING_METRIC
+
+class CacheRefreshServiceTest extends Specification {
+    CacheServiceHandler cacheServiceHandler
+    ScheduledExecutorService cacheRefreshExecutor
+    SimpleMeterRegistry meterRegistry
+    CacheRefreshServiceHandler cacheRefreshServiceHandler
+
+    def setup() {
+        cacheServiceHandler = Mock()
+        cacheRefreshExecutor = Mock()
+        meterRegistry = new SimpleMeterRegistry()
+        cacheRefreshServiceHandler = new CacheRefreshServiceHandler(cacheServiceHandler, new CategoryMetrics(meterRegistry),
+                cacheRefreshExecutor)
+        cacheRefreshServiceHandler.registerMetrics()
+    }
+
+    def "enqueueRefresh() method must coalesce a burst of edits into one delta per window"() {
+        given: "three edits of two categories"
+        def first = new CategoryEntity(id: 1L, name: "Books")
+        def renamed = new CategoryEntity(id: 1L, name: "Books & Comics")
+        def second = new CategoryEntity(id: 2L, name: "Toys")
+
+        when: "the edits are enqueued within one window"
+        cacheRefreshServiceHandler.enqueueRefresh(CategoryCacheRefreshEvent.delta([first], []))
+        cacheRefreshServiceHandler.enqueueRefresh(CategoryCacheRefreshEvent.delta([renamed, second], []))
+        cacheRefreshServiceHandler.enqueueRefresh(CategoryCacheRefreshEvent.delta([], [2L]))
+
+        then: "only one drain is scheduled and the queue depth is exposed"
+        1 * cacheRefreshExecutor.schedule(_ as Runnable, CACHE_REFRESH_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)
+        meterRegistry.get(CACHE_REFRESH_PENDING_METRIC).gauge().value() == 2
+
+        when: "the window elapses"
+        cacheRefreshServiceHandler.drainRefreshes()
+
+        then: "the cache receives a single delta with the latest state"
+        1 * cacheServiceHandler.applyCacheDelta([renamed], [2L])
+        0 * cacheServiceHandler.saveCategoriesToCache()
+        cacheRefreshServiceHandler.pendingRefreshCount == 0
+    }
+
+    def "enqueueRefresh() method must fall back to one full rebuild when the window overflows"() {
+        given: "more pending ids than the pipeline keeps"
+        def categories = (1..CACHE_REFRESH_MAX_PENDING + 1).collect { new CategoryEntity(id: it as Long) }
+
+        when: "the events are enqueued and drained"
+        cacheRefreshServiceHandler.enqueueRefresh(CategoryCacheRefreshEvent.delta(categories, []))
+        cacheRefreshServiceHandler.enqueueRefresh(CategoryCacheRefreshEvent.delta([new CategoryEntity(id: 0L)], []))
+        cacheRefreshServiceHandler.drainRefreshes()
+
+        then: "a single full rebuild replaces the individual deltas"
+        1 * cacheServiceHandler.saveCategoriesToCache()
+        0 * cacheServiceHandler.applyCacheDelta(*_)
+    }
+}
@@ -0,0 +1,253 @@
+package com.company.mscategory.service
+
+import com.company.mscategory.dao.entity.CategoryEntity
+import com.company.mscategory.dao.repository.CategoryRepository
+import com.company.mscategory.model.enums.CategoryStatus
+import com.company.mscategory.service.concrete.CacheServiceHandler
+import com.company.mscategory.util.cache.CacheUtil
+import com.company.mscategory.util.cache.LocalSnapshotStore
+import com.company.mscategory.util.metrics.CategoryMetrics
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.redisson.client.codec.Codec
+import spock.lang.Specification
+
+import java.time.Instant
+
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_INVALIDATION_TOPIC
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_LOCK_KEY
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_MAP_KEY
+import static com.company.mscategory.util.cache.CacheConstraints.CACHE_VERSION_KEY
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_REQUEST_METRIC
+
+class CacheServiceTest extends Specification {
+    CacheUtil cacheUtil
+    CategoryRepository categoryRepository
+    SimpleMeterRegistry meterRegistry
+    LocalSnapshotStore localSnapshotStore
+    CacheServiceHandler cacheServiceHandler
+
+    def setup() {
+        cacheUtil = Mock()
+        categoryRepository = Mock()
+        meterRegistry = new SimpleMeterRegistry()
+        localSnapshotStore = Mock()
+        cacheServiceHandler = new CacheServiceHandler(cacheUtil, categoryRepository, new CategoryMetrics(meterRegistry),
+                localSnapshotStore, Mock(Codec))
+    }
+
+    def "getCategoriesFromCache() method must serve repeated reads from the local cache"() {
+        given: "categories are available in Redis"
+        def categories = [new CategoryEntity(id: 1L, name: "Category 1", baseId: null)]
+
+        when: "getCategoriesFromCache is called twice"
+        def first = cacheServiceHandler.getCategoriesFromCache()
+        def second = cacheServiceHandler.getCategoriesFromCache()
+
+        then: "Redis is read only once"
+        1 * cacheUtil.getVersion(CACHE_VERSION_KEY) >> 1L
+        1 * cacheUtil.getMapValues(CACHE_MAP_KEY, _) >> categories
+        first.categories == categories
+        second.categories == categories
+        !first.degraded
+
+        and: "the hits and misses are counted per tier"
+        meterRegistry.counter(CACHE_REQUEST_METRIC, "tier", "redis", "result", "hit").count() == 1
+        meterRegistry.counter(CACHE_REQUEST_METRIC, "tier", "local", "result", "miss").count() == 1
+        meterRegistry.counter(CACHE_REQUEST_METRIC, "tier", "local", "result", "hit").count() == 1
+    }
+
+    def "getCategoriesFromCache() method must reload from Redis after a newer version is invalidated"() {
+        given: "the local cache holds version 1"
+        cacheUtil.getVersion(CACHE_VERSION_KEY) >> 1L
+        cacheUtil.getMapValues(CACHE_MAP_KEY, _) >> [new CategoryEntity(id: 1L, name: "Category 1", baseId: null)]
+        cacheServiceHandler.getCategoriesFromCache()
+
+        when: "version 2 is invalidated and categories are read again"
+        cacheServiceHandler.evictLocalCache(2L)
+        cacheServiceHandler.getCategoriesFromCache()
+
+        then: "the local copy is dropped and Redis is read again"
+        1 * cacheUtil.getMapValues(CACHE_MAP_KEY, _) >> [new CategoryEntity(id: 2L, name: "Category 2", baseId: null)]
+    }
+
+    def "getCategoriesVersion() method must return the version only for the list held in the local cache"() {
+        given: "the local cache holds version 5"
+        cacheUtil.getVersion(CACHE_VERSION_KEY) >> 5L
+        cacheUtil.getMapValues(CACHE_MAP_KEY, _) >> [new CategoryEntity(id: 1L, name: "Category 1", baseId: null)]
+        def categories = cacheServiceHandler.getCategoriesFromCache().categories
+
+        expect: "the cached list is versioned and any other list is unknown"
+        cacheServiceHandler.getCategoriesVersion(categories) == 5L
+        cacheServiceHandler.getCategoriesVersion([new CategoryEntity(id: 1L, name: "Category 1", baseId: null)]) == -1L
+    }
+
+    def "getCategoryFromCache() method must read a single entry from the per-id hash"() {
+        given: "one category stored in Redis"
+        cacheUtil.getMapValue(CACHE_MAP_KEY, 1L, _) >> new CategoryEntity(id: 1L, name: "Category 1", baseId: null)
+
+        when: "getCategoryFromCache is called for a cached and a missing id"
+        def cached = cacheServiceHandler.getCategoryFromCache(1L)
+        def missing = cacheServiceHandler.getCategoryFromCache(2L)
+
+        then: "only the cached category is returned and the full list is never loaded"
+        cached.name == "Category 1"
+        missing == null
+        0 * cacheUtil.getMapValues(*_)
+        meterRegistry.counter(CACHE_REQUEST_METRIC, "tier", "redis", "result", "hit").count() == 1
+        meterRegistry.counter(CACHE_REQUEST_METRIC, "tier", "redis", "result", "miss").count() == 1
+    }
+
+    def "saveCategoriesToCache() method must bump the version and broadcast an invalidation"() {
+        given: "categories in the database"
+        def categories = [new CategoryEntity(id: 1L, name: "Category 1", baseId: null)]
+        categoryRepository.findAllActive() >> categories
+        cacheUtil.incrementVersion(CACHE_VERSION_KEY) >> 3L
+
+        when: "saveCategoriesToCache is called"
+        cacheServiceHandler.saveCategoriesToCache()
+        def result = cacheServiceHandler.getCategoriesFromCache()
+
+        then: "the hash is replaced, the new version is published and the local cache is warm"
+        1 * cacheUtil.replaceMap(CACHE_MAP_KEY, [1L: categories[0]], _, _, _)
+        1 * cacheUtil.publish(CACHE_INVALIDATION_TOPIC, 3L)
+        0 * cacheUtil.getMapValues(CACHE_MAP_KEY, _)
+        result.categories == categories
+    }
+
+    def "applyCacheDelta() method must patch only the affected entries"() {
+        given: "the cache hash exists"
+        def updated = new CategoryEntity(id: 5L, name: "Updated", baseId: 1L)
+        cacheUtil.exists(CACHE_MAP_KEY) >> true
+        cacheUtil.incrementVersion(CACHE_VERSION_KEY) >> 4L
+
+        when: "a delta is applied"
+        cacheServiceHandler.applyCacheDelta([updated], [7L])
+
+        then: "the hash is patched without reading the database"
+        1 * cacheUtil.patchMap(CACHE_MAP_KEY, [5L: updated], [7L], _, _, _)
+        1 * cacheUtil.publish(CACHE_INVALIDATION_TOPIC, 4L)
+        0 * categoryRepository.findAllActive()
+    }
+
+    def "applyCacheDelta() method must remove deleted categories instead of upserting them"() {
+        given: "the cache hash exists"
+        def deleted = new CategoryEntity(id: 5L, name: "Deleted", baseId: 1L, status: CategoryStatus.DELETED)
+        cacheUtil.exists(CACHE_MAP_KEY) >> true
+
+        when: "a delta containing a deleted category is applied"
+        cacheServiceHandler.applyCacheDelta([deleted], [])
+
+        then: "the category is removed from the hash"
+        1 * cacheUtil.patchMap(CACHE_MAP_KEY, [:], [5L], _, _, _)
+    }
+
+    def "applyCacheDelta() method must rebuild the cache when the hash is missing"() {
+        given: "the cache hash does not exist"
+        cacheUtil.exists(CACHE_MAP_KEY) >> false
+
+        when: "a delta is applied"
+        cacheServiceHandler.applyCacheDelta([new CategoryEntity(id: 5L, name: "Updated", baseId: 1L)], [])
+
+        then: "the cache is rebuilt from the database"
+        1 * categoryRepository.findAllActive() >> []
+        1 * cacheUtil.replaceMap(CACHE_MAP_KEY, [:], _, _, _)
+        0 * cacheUtil.patchMap(*_)
+    }
+
+    def "reconcileCache() method must rebuild the cache only when it is out of sync"() {
+        given: "the hash is not close to expiry but its size does not match the database row count"
+        cacheUtil.remainTimeToLive(CACHE_MAP_KEY) >> Long.MAX_VALUE
+        cacheUtil.getMapSize(CACHE_MAP_KEY, _) >> 2
+        categoryRepository.countActive() >> 3L
+
+        when: "reconciliation runs"
+        cacheServiceHandler.reconcileCache()
+
+        then: "the cache is rebuilt under the lease"
+        1 * cacheUtil.tryLock(CACHE_LOCK_KEY, 0, _) >> true
+        1 * categoryRepository.findAllActive() >> []
+        1 * cacheUtil.unlock(CACHE_LOCK_KEY)
+    }
+
+    def "reconcileCache() method must retry the invalidation subscription when Redis was down at startup"() {
+        given: "the subscription failed while the node started"
+        cacheUtil.subscribe(CACHE_INVALIDATION_TOPIC, Long, _) >> { throw new RuntimeException("redis down") }
+        cacheServiceHandler.subscribeToInvalidations()
+
+        when: "reconciliation runs twice after Redis is back"
+        cacheServiceHandler.reconcileCache()
+        cacheServiceHandler.reconcileCache()
+
+        then: "the node subscribes once"
+        1 * cacheUtil.subscribe(CACHE_INVALIDATION_TOPIC, Long, _)
+    }
+
+    def "reconcileCache() method must refresh the cache before it expires"() {
+        given: "the hash is in sync but close to its hard expiry"
+        cacheUtil.remainTimeToLive(CACHE_MAP_KEY) >> 1000L
+        cacheUtil.getMapSize(CACHE_MAP_KEY, _) >> 3
+        categoryRepository.countActive() >> 3L
+        cacheUtil.tryLock(CACHE_LOCK_KEY, 0, _) >> true
+
+        when: "reconciliation runs"
+        cacheServiceHandler.reconcileCache()
+
+        then: "the cache is rebuilt ahead of expiry"
+        1 * categoryRepository.findAllActive() >> []
+    }
+
+    def "loadCategoriesOnMiss() method must not reload when another instance already rebuilt the cache"() {
+        given: "the lease is acquired after another instance filled the hash"
+        def categories = [new CategoryEntity(id: 1L, name: "Category 1", baseId: null)]
+        cacheUtil.tryLock(CACHE_LOCK_KEY, _, _) >> true
+        cacheUtil.getMapValues(CACHE_MAP_KEY, _) >> categories
+
+        when: "loadCategoriesOnMiss is called"
+        def result = cacheServiceHandler.loadCategoriesOnMiss().get()
+
+        then: "the cached categories are returned without touching the database"
+        result == categories
+        0 * categoryRepository.findAllActive()
+        1 * cacheUtil.unlock(CACHE_LOCK_KEY)
+    }
+
+    def "loadCategoriesOnMiss() method must rebuild the cache once the lease is acquired on a cold cache"() {
+        given: "the lease is acquired and the hash is empty"
+        def categories = [new CategoryEntity(id: 1L, name: "Category 1", baseId: null)]
+        cacheUtil.tryLock(CACHE_LOCK_KEY, _, _) >> true
+        cacheUtil.getMapValues(CACHE_MAP_KEY, _) >> null
+
+        when: "loadCategoriesOnMiss is called"
+        def result = cacheServiceHandler.loadCategoriesOnMiss().get()
+
+        then: "the database is read once and the cache is rebuilt"
+        1 * categoryRepository.findAllActive() >> categories
+        1 * cacheUtil.replaceMap(CACHE_MAP_KEY, _, _, _, _)
+        result == categories
+    }
+
+    def "fallbackGetFromCache() method must serve the local snapshot and mark the response as degraded"() {
+        given: "a snapshot persisted before Redis went down"
+        def categories = [new CategoryEntity(id: 1L, name: "Category 1", baseId: null)]
+        def savedAt = Instant.parse("2024-01-01T00:00:00Z")
+        localSnapshotStore.load() >> new LocalSnapshotStore.LocalSnapshot(categories, 7L, savedAt)
+
+        when: "the circuit breaker falls back"
+        def result = cacheServiceHandler.fallbackGetFromCache(new RuntimeException("redis down"))
+
+        then: "the snapshot is served with its timestamp"
+        result.categories == categories
+        result.degradedSnapshotTime == savedAt
+    }
+
+    def "fallbackGetFromCache() method must return null instead of an empty catalog when nothing is cached locally"() {
+        given: "no local snapshot"
+        localSnapshotStore.load() >> null
+
+        when: "the circuit breaker falls back"
+        def result = cacheServiceHandler.fallbackGetFromCache(new RuntimeException("redis down"))
+
+        then: "the caller is told to load from the database"
+        result == null
+    }
+}
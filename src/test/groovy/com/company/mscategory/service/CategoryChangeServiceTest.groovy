@@ -0,0 +1,113 @@
+package com.company.mscategory.service
+
+import com.company.mscategory.dao.entity.CategoryChangeEntity
+import com.company.mscategory.dao.entity.CategoryEntity
+import com.company.mscategory.dao.repository.CategoryChangeRepository
+import com.company.mscategory.dao.repository.CategoryRepository
+import com.company.mscategory.model.enums.CategoryChangeType
+import com.company.mscategory.model.enums.CategoryStatus
+import com.company.mscategory.service.concrete.CategoryChangeServiceHandler
+import com.company.mscategory.util.cache.CacheUtil
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import spock.lang.Specification
+
+import static com.company.mscategory.util.changes.ChangeLogConstraints.CHANGE_LOG_COMPACTION_LOCK_KEY
+
+class CategoryChangeServiceTest extends Specification {
+    CategoryChangeRepository categoryChangeRepository
+    CategoryRepository categoryRepository
+    CacheUtil cacheUtil
+    CategoryChangeServiceHandler categoryChangeServiceHandler
+
+    def setup() {
+        categoryChangeRepository = Mock()
+        categoryRepository = Mock()
+        cacheUtil = Mock()
+        categoryChangeServiceHandler = new CategoryChangeServiceHandler(categoryChangeRepository, categoryRepository, cacheUtil)
+    }
+
+    def "getChanges() method must collapse the log into the latest upserts and deletes"() {
+        given: "a change log with repeated changes of the same category"
+        categoryChangeRepository.findLatestVersion() >> 14L
+        categoryChangeRepository.findCompactedVersion() >> null
+        categoryChangeRepository.findChangesSince(10L, _) >> [
+                new CategoryChangeEntity(11L, 1L, CategoryChangeType.UPSERT, null),
+                new CategoryChangeEntity(12L, 2L, CategoryChangeType.UPSERT, null),
+                new CategoryChangeEntity(13L, 1L, CategoryChangeType.DELETE, null),
+                new CategoryChangeEntity(14L, 2L, CategoryChangeType.UPSERT, null)
+        ]
+        categoryRepository.findAllById([2L]) >> [new CategoryEntity(id: 2L, name: "Fiction", baseId: 1L, status: CategoryStatus.ACTIVE)]
+
+        when: "getChanges is called"
+        def result = categoryChangeServiceHandler.getChanges(10L, null)
+
+        then: "each category appears once with its latest state"
+        result.version == 14L
+        !result.resyncRequired
+        !result.hasMore
+        result.upserts*.name == ["Fiction"]
+        result.deletes == [1L]
+    }
+
+    def "getChanges() method must ask for a resync when the requested version was compacted"() {
+        given: "a change log compacted up to version 50"
+        categoryChangeRepository.findLatestVersion() >> 80L
+        categoryChangeRepository.findCompactedVersion() >> 50L
+
+        when: "getChanges is called with an older version"
+        def result = categoryChangeServiceHandler.getChanges(20L, null)
+
+        then: "a resync is required and the log is not read"
+        result.resyncRequired
+        result.version == 80L
+        0 * categoryChangeRepository.findChangesSince(_, _)
+    }
+
+    def "recordUpserts() method must number the changes from one reserved block of versions"() {
+        when: "two writers record changes one after the other"
+        categoryChangeServiceHandler.recordUpserts([7L, 8L, 9L])
+        categoryChangeServiceHandler.recordDeletes([3L])
+
+        then: "each writer takes its versions from a single counter update"
+        1 * categoryChangeRepository.reserveVersions(3) >> 23L
+        1 * categoryChangeRepository.saveAll({ it*.version == [21L, 22L, 23L] && it*.categoryId == [7L, 8L, 9L] })
+        1 * categoryChangeRepository.reserveVersions(1) >> 24L
+        1 * categoryChangeRepository.saveAll({ it*.version == [24L] && it*.changeType == [CategoryChangeType.DELETE] })
+    }
+
+    def "compactChangeLog() method must replace old changes with a compaction marker under the compaction lease"() {
+        given: "changes older than the retention period and an open transaction"
+        categoryChangeRepository.findLastVersionBefore(_) >> 40L
+        cacheUtil.tryLock(CHANGE_LOG_COMPACTION_LOCK_KEY, 0, _) >> true
+        TransactionSynchronizationManager.initSynchronization()
+
+        when: "compactChangeLog is called"
+        categoryChangeServiceHandler.compactChangeLog()
+
+        then: "the old changes are deleted and the marker is written"
+        1 * categoryChangeRepository.deleteUpToVersion(40L) >> 40
+        1 * categoryChangeRepository.insertCompactionMarker(40L)
+        0 * cacheUtil.unlock(_)
+
+        when: "the transaction completes"
+        TransactionSynchronizationManager.synchronizations*.afterCompletion(0)
+
+        then: "the lease is released"
+        1 * cacheUtil.unlock(CHANGE_LOG_COMPACTION_LOCK_KEY)
+
+        cleanup:
+        TransactionSynchronizationManager.clearSynchronization()
+    }
+
+    def "compactChangeLog() method must skip compaction while another node holds the lease"() {
+        given: "the lease is held elsewhere"
+        cacheUtil.tryLock(CHANGE_LOG_COMPACTION_LOCK_KEY, 0, _) >> false
+
+        when: "compactChangeLog is called"
+        categoryChangeServiceHandler.compactChangeLog()
+
+        then: "the change log is left alone"
+        0 * categoryChangeRepository.deleteUpToVersion(_)
+        0 * categoryChangeRepository.insertCompactionMarker(_)
+    }
+}
@@ -0,0 +1,118 @@
+package com.company.mscategory.service
+
+import com.company.mscategory.dao.entity.CategoryEntity
+import com.company.mscategory.dao.repository.CategoryRepository
+import com.company.mscategory.exception.InvalidCategoryImportException
+import com.company.mscategory.exception.NotFoundException
+import com.company.mscategory.model.event.CategoryCacheRefreshEvent
+import com.company.mscategory.model.request.CategoryImportRequest.CategoryImportDetail
+import com.company.mscategory.service.concrete.CategoryChangeServiceHandler
+import com.company.mscategory.service.concrete.CategoryImportServiceHandler
+import org.springframework.context.ApplicationEventPublisher
+import spock.lang.Specification
+
+import javax.persistence.EntityManager
+
+class CategoryImportServiceTest extends Specification {
+    CategoryRepository categoryRepository
+    CategoryChangeServiceHandler categoryChangeServiceHandler
+    EntityManager entityManager
+    ApplicationEventPublisher applicationEventPublisher
+    CategoryImportServiceHandler categoryImportServiceHandler
+
+    def setup() {
+        categoryRepository = Mock()
+        categoryChangeServiceHandler = Mock()
+        entityManager = Mock()
+        applicationEventPublisher = Mock()
+        categoryImportServiceHandler = new CategoryImportServiceHandler(categoryRepository, categoryChangeServiceHandler,
+                entityManager, applicationEventPublisher)
+    }
+
+    def "importCategories() method must insert parents before children and resolve temp keys"() {
+        given: "a child listed before its parent"
+        def importDetails = [
+                new CategoryImportDetail("child", "parent", null, "Fiction", "fiction.jpg"),
+                new CategoryImportDetail("parent", null, null, "Books", "books.jpg")
+        ]
+        def nextId = 100L
+        def saved = []
+        def insertedPaths = []
+        categoryRepository.reserveId(_ as CategoryEntity) >> { nextId++ }
+        categoryRepository.insert(_ as CategoryEntity) >> { CategoryEntity entity ->
+            insertedPaths << entity.path
+            saved << entity
+        }
+
+        when: "importCategories is called"
+        def result = categoryImportServiceHandler.importCategories(importDetails)
+
+        then: "the parent is saved first and the child references its generated id"
+        saved*.name == ["Books", "Fiction"]
+        saved[1].baseId == 100L
+        insertedPaths == ["/100/", "/100/101/"]
+        0 * categoryRepository.save(_)
+        result.importedCount == 2
+        result.ids == [parent: 100L, child: 101L]
+
+        and: "the imported ids are appended to the change log with the batch"
+        1 * categoryChangeServiceHandler.recordUpserts([100L, 101L])
+
+        and: "a single full cache rebuild is requested"
+        1 * applicationEventPublisher.publishEvent({ CategoryCacheRefreshEvent event -> event.fullRebuild })
+    }
+
+    def "importCategories() method should reject cyclic parent keys"() {
+        given: "two categories that reference each other"
+        def importDetails = [
+                new CategoryImportDetail("a", "b", null, "A", "a.jpg"),
+                new CategoryImportDetail("b", "a", null, "B", "b.jpg")
+        ]
+
+        when: "importCategories is called"
+        categoryImportServiceHandler.importCategories(importDetails)
+
+        then: "an InvalidCategoryImportException is thrown and nothing is saved"
+        thrown(InvalidCategoryImportException)
+        0 * categoryRepository.insert(_)
+    }
+
+    def "importCategories() method should reject unknown parent keys"() {
+        given: "a category whose parent key is missing"
+        def importDetails = [new CategoryImportDetail("a", "missing", null, "A", "a.jpg")]
+
+        when: "importCategories is called"
+        categoryImportServiceHandler.importCategories(importDetails)
+
+        then: "an InvalidCategoryImportException is thrown"
+        thrown(InvalidCategoryImportException)
+    }
+
+    def "importCategories() method must nest paths under an existing base category"() {
+        given: "a category attached to an existing base id"
+        def importDetails = [new CategoryImportDetail("a", null, 7L, "A", "a.jpg")]
+        categoryRepository.findAllById([7L] as Set) >> [new CategoryEntity(id: 7L, path: "/3/7/")]
+        def saved = []
+        categoryRepository.reserveId(_ as CategoryEntity) >> 100L
+        categoryRepository.insert(_ as CategoryEntity) >> { CategoryEntity entity -> saved << entity }
+
+        when: "importCategories is called"
+        categoryImportServiceHandler.importCategories(importDetails)
+
+        then: "the new category path extends the base category path"
+        saved[0].baseId == 7L
+        saved[0].path == "/3/7/100/"
+    }
+
+    def "importCategories() method should throw NotFoundException if an existing base category does not exist"() {
+        given: "a category attached to a non-existent base id"
+        def importDetails = [new CategoryImportDetail("a", null, 999L, "A", "a.jpg")]
+        categoryRepository.findAllById([999L] as Set) >> []
+
+        when: "importCategories is called"
+        categoryImportServiceHandler.importCategories(importDetails)
+
+        then: "a NotFoundException is thrown"
+        thrown(NotFoundException)
+    }
+}
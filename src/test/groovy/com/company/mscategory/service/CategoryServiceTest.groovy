@@ -4,20 +4,35 @@ package com.company.mscategory.service
 import com.company.mscategory.dao.entity.CategoryEntity
 import com.company.mscategory.dao.repository.CategoryRepository
 import com.company.mscategory.exception.CannotDeleteSubCategoryException
+import com.company.mscategory.exception.CategoryCycleException
+import com.company.mscategory.exception.CategoryReadUnavailableException
+import com.company.mscategory.exception.InvalidCategoryBatchException
 import com.company.mscategory.exception.NotFoundException
 import com.company.mscategory.model.enums.CategoryStatus
+import com.company.mscategory.model.event.CategoryCacheRefreshEvent
+import com.company.mscategory.model.request.CategoryBatchUpdateRequest.CategoryBatchUpdateDetail
 import com.company.mscategory.model.request.CategoryRequest
 import com.company.mscategory.model.request.CategoryUpdateRequest
 import com.company.mscategory.model.response.CategorySeparationResult
 import com.company.mscategory.model.response.CategoryTreeNodeResponse
 import com.company.mscategory.service.concrete.CacheServiceHandler
+import com.company.mscategory.service.concrete.CategoryChangeServiceHandler
 import com.company.mscategory.service.concrete.CategoryServiceHandler
+import com.company.mscategory.util.cache.CachedCategories
+import com.company.mscategory.util.metrics.CategoryMetrics
+import com.company.mscategory.util.render.RenderFormat
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory
+import com.fasterxml.jackson.dataformat.smile.SmileFactory
 import io.github.benas.randombeans.EnhancedRandomBuilder
 import io.github.benas.randombeans.api.EnhancedRandom
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.context.ApplicationEventPublisher
 import spock.lang.Specification
 
+import java.nio.charset.StandardCharsets
+import java.time.Instant
 import java.util.concurrent.CompletableFuture
-import java.util.concurrent.ExecutionException
 
 import static com.company.mscategory.mapper.factory.CategoryMapper.CATEGORY_MAPPER
 
@@ -26,18 +41,23 @@ class CategoryServiceTest extends Specification {
 
     CategoryRepository categoryRepository
     CacheServiceHandler cacheServiceHandler
+    CategoryChangeServiceHandler categoryChangeServiceHandler
+    ApplicationEventPublisher applicationEventPublisher
     CategoryServiceHandler categoryServiceHandler
 
     def setup() {
         categoryRepository = Mock()
         cacheServiceHandler = Mock()
-        categoryServiceHandler = new CategoryServiceHandler(categoryRepository, cacheServiceHandler)
+        categoryChangeServiceHandler = Mock()
+        applicationEventPublisher = Mock()
+        categoryServiceHandler = new CategoryServiceHandler(categoryRepository, cacheServiceHandler, categoryChangeServiceHandler,
+                new ObjectMapper(), applicationEventPublisher, new CategoryMetrics(new SimpleMeterRegistry()))
     }
 
     def "getCategories() method must return categories from cache if available"() {
         given: "categories are available in the cache"
         def cachedCategories = [new CategoryEntity(id: 1L, name: "Category 1", baseId: null)]
-        cacheServiceHandler.getCategoriesFromCache() >> cachedCategories
+        cacheServiceHandler.getCategoriesFromCache() >> cached(cachedCategories)
 
         and: "CATEGORY_MAPPER returns a built category tree"
         def categoryTree = [new CategoryTreeNodeResponse(id: 1L, name: "Category 1")]
@@ -48,16 +68,16 @@ class CategoryServiceTest extends Specification {
 
         then: "categories are returned directly from cache"
         result == categoryTree
-        0 * cacheServiceHandler.saveCategoriesToCache()
+        0 * cacheServiceHandler.loadCategoriesOnMiss()
     }
 
-    def "getCategories() method should save categories to cache if cache is empty and return built category tree"() {
-        given: "cache is empty and saveCategoriesToCache returns categories"
+    def "getCategories() method should load categories into cache if cache is empty and return built category tree"() {
+        given: "cache is empty and loadCategoriesOnMiss returns categories"
         cacheServiceHandler.getCategoriesFromCache() >> null
 
-        and: "saveCategoriesToCache returns categories from the database"
+        and: "loadCategoriesOnMiss returns categories from the database"
         def dbCategories = [new CategoryEntity(id: 1L, name: "Category 1", baseId: null)]
-        cacheServiceHandler.saveCategoriesToCache() >> CompletableFuture.completedFuture(dbCategories)
+        cacheServiceHandler.loadCategoriesOnMiss() >> CompletableFuture.completedFuture(dbCategories)
 
         and: "CATEGORY_MAPPER builds a category tree"
         def categoryTree = [new CategoryTreeNodeResponse(id: 1L, name: "Category 1")]
@@ -70,16 +90,329 @@ class CategoryServiceTest extends Specification {
         result == categoryTree
     }
 
-    def "getCategories() method should return empty list if saveCategoriesToCache throws an exception"() {
-        given: "cache is empty and saveCategoriesToCache throws an ExecutionException"
+    def "getCategories() method should fail with CategoryReadUnavailableException instead of an empty catalog if loadCategoriesOnMiss fails"() {
+        given: "cache is empty and loadCategoriesOnMiss fails"
+        def failure = new IllegalStateException("database down")
         cacheServiceHandler.getCategoriesFromCache() >> null
-        cacheServiceHandler.saveCategoriesToCache() >> CompletableFuture.failedFuture(new ExecutionException("Error", new Throwable()))
+        cacheServiceHandler.loadCategoriesOnMiss() >> CompletableFuture.failedFuture(failure)
 
         when: "getCategories is called"
-        def result = categoryServiceHandler.getCategories()
+        categoryServiceHandler.getCategories()
+
+        then: "the failure is surfaced so it is not cached as an empty catalog"
+        def ex = thrown(CategoryReadUnavailableException)
+        ex.cause.is(failure)
+    }
+
+    def "getCategories() method should keep the interrupt flag when interrupted while waiting for the load"() {
+        given: "cache is empty and the wait for loadCategoriesOnMiss is interrupted"
+        def load = Mock(CompletableFuture) {
+            get() >> { throw new InterruptedException() }
+        }
+        cacheServiceHandler.getCategoriesFromCache() >> null
+        cacheServiceHandler.loadCategoriesOnMiss() >> load
+
+        when: "getCategories is called"
+        categoryServiceHandler.getCategories()
+
+        then: "the read fails and the thread stays interrupted"
+        thrown(CategoryReadUnavailableException)
+        Thread.interrupted()
+    }
+
+    def "getRenderedCategories() method must render the tree once per cached category set"() {
+        given: "categories are available in the cache"
+        def cachedCategories = [new CategoryEntity(id: 1L, name: "Category 1", baseId: null)]
+        cacheServiceHandler.getCategoriesFromCache() >> cached(cachedCategories)
+
+        when: "getRenderedCategories is called twice"
+        def first = categoryServiceHandler.getRenderedCategories(RenderFormat.JSON)
+        def second = categoryServiceHandler.getRenderedCategories(RenderFormat.JSON)
+
+        then: "the same rendered body and etag are returned"
+        first.is(second)
+        new String(first.body) == '[{"id":1,"name":"Category 1","baseId":null,"picture":null,"subCategories":null}]'
+        first.etag.startsWith('"') && first.etag.endsWith('"')
+        first.etag != first.gzipEtag
+    }
+
+    def "getRenderedCategories() method must stamp the tree with the version of the cached category set"() {
+        given: "categories cached at version 9"
+        def cachedCategories = [new CategoryEntity(id: 1L, name: "Category 1", baseId: null)]
+        cacheServiceHandler.getCategoriesFromCache() >> cached(cachedCategories)
+        cacheServiceHandler.getCategoriesVersion(cachedCategories) >> 9L
+
+        when: "getRenderedCategories is called"
+        def rendered = categoryServiceHandler.getRenderedCategories(RenderFormat.JSON)
+
+        then: "the rendered tree carries that version"
+        rendered.catalogVersion == 9L
+    }
+
+    def "getRenderedCategories() method must mark only the degraded read as served from the snapshot"() {
+        given: "the same category set is served once from the snapshot and once from Redis"
+        def categories = [new CategoryEntity(id: 1L, name: "Category 1", baseId: null)]
+        def savedAt = Instant.parse("2024-01-01T00:00:00Z")
+        cacheServiceHandler.getCategoriesFromCache() >>> [new CachedCategories(categories, savedAt), cached(categories)]
+
+        when: "getRenderedCategories is called twice"
+        def degraded = categoryServiceHandler.getRenderedCategories(RenderFormat.JSON)
+        def healthy = categoryServiceHandler.getRenderedCategories(RenderFormat.JSON)
+
+        then: "the rendered body is shared but only the degraded read carries the snapshot time"
+        degraded.degradedSnapshotTime == savedAt
+        healthy.degradedSnapshotTime == null
+        degraded.body.is(healthy.body)
+    }
+
+    def "getRenderedCategories() method must re-render when the cached category set changes"() {
+        given: "the cache returns a different category set on the second call"
+        cacheServiceHandler.getCategoriesFromCache() >>> [
+                cached([new CategoryEntity(id: 1L, name: "Category 1", baseId: null)]),
+                cached([new CategoryEntity(id: 2L, name: "Category 2", baseId: null)])
+        ]
+        cacheServiceHandler.getCategoriesVersion(_) >>> [1L, 2L]
+
+        when: "getRenderedCategories is called twice"
+        def first = categoryServiceHandler.getRenderedCategories(RenderFormat.JSON)
+        def second = categoryServiceHandler.getRenderedCategories(RenderFormat.JSON)
+
+        then: "a new etag is produced"
+        first.etag != second.etag
+    }
+
+    def "getRenderedCategories() method must reuse the rendered tree when the category set is reloaded at the same version"() {
+        given: "the local cache expires and Redis returns a new list at the same version"
+        cacheServiceHandler.getCategoriesFromCache() >>> [
+                cached([new CategoryEntity(id: 1L, name: "Category 1", baseId: null)]),
+                cached([new CategoryEntity(id: 1L, name: "Category 1", baseId: null)])
+        ]
+        cacheServiceHandler.getCategoriesVersion(_) >> 5L
+
+        when: "getRenderedCategories is called twice"
+        def first = categoryServiceHandler.getRenderedCategories(RenderFormat.JSON)
+        def second = categoryServiceHandler.getRenderedCategories(RenderFormat.JSON)
+
+        then: "the tree is encoded once for that version"
+        first.is(second)
+    }
+
+    def "getRenderedCategories() method must re-render a new list when its version is unknown"() {
+        given: "two lists loaded outside the local cache"
+        cacheServiceHandler.getCategoriesFromCache() >>> [
+                cached([new CategoryEntity(id: 1L, name: "Category 1", baseId: null)]),
+                cached([new CategoryEntity(id: 2L, name: "Category 2", baseId: null)])
+        ]
+        cacheServiceHandler.getCategoriesVersion(_) >> -1L
+
+        when: "getRenderedCategories is called twice"
+        def first = categoryServiceHandler.getRenderedCategories(RenderFormat.JSON)
+        def second = categoryServiceHandler.getRenderedCategories(RenderFormat.JSON)
+
+        then: "each list gets its own rendering"
+        first.etag != second.etag
+    }
+
+    def "getRenderedCategories() method must cache each binary format separately for the same category set"() {
+        given: "categories are available in the cache"
+        cacheServiceHandler.getCategoriesFromCache() >> cached([
+                new CategoryEntity(id: 1L, name: "Books", baseId: null),
+                new CategoryEntity(id: 2L, name: "Fiction", baseId: 1L)
+        ])
+
+        when: "the tree is rendered as JSON, CBOR and Smile"
+        def json = categoryServiceHandler.getRenderedCategories(RenderFormat.JSON)
+        def cbor = categoryServiceHandler.getRenderedCategories(RenderFormat.CBOR)
+        def smile = categoryServiceHandler.getRenderedCategories(RenderFormat.SMILE)
+
+        then: "each format is rendered once and decodes to the same tree"
+        categoryServiceHandler.getRenderedCategories(RenderFormat.SMILE).is(smile)
+        new ObjectMapper(new CBORFactory()).readTree(cbor.body) == new ObjectMapper().readTree(json.body)
+        new ObjectMapper(new SmileFactory()).readTree(smile.body) == new ObjectMapper().readTree(json.body)
+
+        and: "the binary encodings are smaller and carry their own etags"
+        smile.body.length < json.body.length
+        [json.etag, cbor.etag, smile.etag].unique().size() == 3
+    }
+
+    def "getCategory() method must answer from the in-memory index when it matches the local cache"() {
+        given: "a category tree built from the local cache"
+        def categories = [
+                new CategoryEntity(id: 1L, name: "Books", baseId: null),
+                new CategoryEntity(id: 2L, name: "Fiction", baseId: 1L)
+        ]
+        cacheServiceHandler.getCategoriesFromCache() >> cached(categories)
+        cacheServiceHandler.peekLocalCategories() >> categories
+        categoryServiceHandler.getCategories()
+
+        when: "getCategory is called"
+        def result = categoryServiceHandler.getCategory(1L)
+
+        then: "the flat category is returned without Redis or the database"
+        result == new CategoryTreeNodeResponse(1L, "Books", null, null, null)
+        0 * cacheServiceHandler.getCategoryFromCache(_)
+        0 * categoryRepository.findById(_)
+    }
+
+    def "getCategory() method must read the per-id cache when no local tree is available"() {
+        given: "the category is only present in Redis"
+        cacheServiceHandler.getCategoryFromCache(2L) >> new CategoryEntity(id: 2L, name: "Fiction", baseId: 1L, picture: "fiction.jpg")
+
+        when: "getCategory is called"
+        def result = categoryServiceHandler.getCategory(2L)
+
+        then: "the cached category is returned without hitting the database"
+        result == new CategoryTreeNodeResponse(2L, "Fiction", 1L, "fiction.jpg", null)
+        0 * categoryRepository.findById(_)
+    }
+
+    def "getCategory() method should fall back to the database and ignore deleted categories"() {
+        given: "a cache miss"
+        cacheServiceHandler.getCategoryFromCache(_) >> null
+
+        and: "one active and one deleted category in the database"
+        categoryRepository.findById(1L) >> Optional.of(new CategoryEntity(id: 1L, name: "Books", status: CategoryStatus.ACTIVE))
+        categoryRepository.findById(2L) >> Optional.of(new CategoryEntity(id: 2L, name: "Old", status: CategoryStatus.DELETED))
 
-        then: "an empty list is returned due to the exception"
-        result == []
+        when: "getCategory is called for the active category"
+        def result = categoryServiceHandler.getCategory(1L)
+
+        then: "it is returned from the database"
+        result.name == "Books"
+
+        when: "getCategory is called for the deleted category"
+        categoryServiceHandler.getCategory(2L)
+
+        then: "a NotFoundException is thrown"
+        thrown(NotFoundException)
+    }
+
+    def "getCategoryTree() method must return the subtree of the requested category"() {
+        given: "a three level hierarchy in the cache"
+        cacheServiceHandler.getCategoriesFromCache() >> cached([
+                new CategoryEntity(id: 1L, name: "Books", baseId: null),
+                new CategoryEntity(id: 2L, name: "Fiction", baseId: 1L),
+                new CategoryEntity(id: 3L, name: "Mystery", baseId: 2L)
+        ])
+
+        when: "getCategoryTree is called for the middle category"
+        def result = categoryServiceHandler.getCategoryTree(2L, null)
+
+        then: "the category and its descendants are returned"
+        result.name == "Fiction"
+        result.subCategories*.name == ["Mystery"]
+    }
+
+    def "getCategoryTree() method should throw NotFoundException if category is not cached"() {
+        given: "an empty cache"
+        cacheServiceHandler.getCategoriesFromCache() >> cached([])
+
+        when: "getCategoryTree is called"
+        categoryServiceHandler.getCategoryTree(42L, 1)
+
+        then: "a NotFoundException is thrown"
+        thrown(NotFoundException)
+    }
+
+    def "getCategoryPath() method must return the ancestors from the root down to the category"() {
+        given: "a three level hierarchy in the cache"
+        cacheServiceHandler.getCategoriesFromCache() >> cached([
+                new CategoryEntity(id: 1L, name: "Books", baseId: null),
+                new CategoryEntity(id: 2L, name: "Fiction", baseId: 1L),
+                new CategoryEntity(id: 3L, name: "Mystery", baseId: 2L)
+        ])
+
+        when: "getCategoryPath is called for the leaf category"
+        def result = categoryServiceHandler.getCategoryPath(3L)
+
+        then: "the breadcrumb is returned without children"
+        result*.name == ["Books", "Fiction", "Mystery"]
+        result.every { it.subCategories == null }
+    }
+
+    def "getDescendantIds() method must return every category below the requested one"() {
+        given: "a three level hierarchy in the cache"
+        cacheServiceHandler.getCategoriesFromCache() >> cached([
+                new CategoryEntity(id: 1L, name: "Books", baseId: null),
+                new CategoryEntity(id: 2L, name: "Fiction", baseId: 1L),
+                new CategoryEntity(id: 3L, name: "Mystery", baseId: 2L),
+                new CategoryEntity(id: 4L, name: "Toys", baseId: null)
+        ])
+
+        when: "getDescendantIds is called for the root category"
+        def result = categoryServiceHandler.getDescendantIds(1L)
+
+        then: "only the descendants are returned"
+        result == [2L, 3L]
+    }
+
+    def "searchCategories() method must return matches with their ancestor path"() {
+        given: "a three level hierarchy in the cache"
+        cacheServiceHandler.getCategoriesFromCache() >> cached([
+                new CategoryEntity(id: 1L, name: "Books", baseId: null),
+                new CategoryEntity(id: 2L, name: "Fiction", baseId: 1L),
+                new CategoryEntity(id: 3L, name: "Mystery", baseId: 2L)
+        ])
+
+        when: "searchCategories is called with a prefix"
+        def result = categoryServiceHandler.searchCategories("mys", null)
+
+        then: "the match is returned with the names of its ancestors"
+        result*.id == [3L]
+        result[0].path == ["Books", "Fiction"]
+    }
+
+    def "searchCategories() method must search the index published with the current tree snapshot"() {
+        given: "the catalog changes from version 1 to version 2"
+        cacheServiceHandler.getCategoriesFromCache() >>> [
+                cached([new CategoryEntity(id: 1L, name: "Mystery", baseId: null)]),
+                cached([new CategoryEntity(id: 2L, name: "Music", baseId: null)])
+        ]
+        cacheServiceHandler.getCategoriesVersion(_) >>> [1L, 2L]
+
+        when: "the same prefix is searched at each version"
+        def before = categoryServiceHandler.searchCategories("m", null)
+        def after = categoryServiceHandler.searchCategories("m", null)
+
+        then: "each search sees the index of its own snapshot"
+        before*.id == [1L]
+        after*.id == [2L]
+    }
+
+    def "prepareCategoryTree() method must stream the same JSON as the materialized tree"() {
+        given: "a three level hierarchy in the cache"
+        cacheServiceHandler.getCategoriesFromCache() >> cached([
+                new CategoryEntity(id: 1L, name: "Books", baseId: null, picture: "books.jpg"),
+                new CategoryEntity(id: 2L, name: "Fiction", baseId: 1L, picture: "fiction.jpg"),
+                new CategoryEntity(id: 3L, name: "Mystery", baseId: 2L, picture: "mystery.jpg"),
+                new CategoryEntity(id: 4L, name: "Music", baseId: null, picture: "music.jpg")
+        ])
+        def outputStream = new ByteArrayOutputStream()
+
+        when: "the tree is streamed"
+        categoryServiceHandler.prepareCategoryTree().write(outputStream)
+
+        then: "the output matches the Jackson serialization of the tree"
+        outputStream.toString() == new ObjectMapper().writeValueAsString(categoryServiceHandler.getCategories())
+    }
+
+    def "prepareCategoriesAsNdjson() method must write one flat category per line"() {
+        given: "three categories in the cache"
+        cacheServiceHandler.getCategoriesFromCache() >> cached([
+                new CategoryEntity(id: 1L, name: "Books", baseId: null, picture: "books.jpg"),
+                new CategoryEntity(id: 2L, name: "Fiction", baseId: 1L, picture: "fiction.jpg"),
+                new CategoryEntity(id: 3L, name: "Poetry", baseId: 1L, picture: "poetry.jpg")
+        ])
+        def outputStream = new ByteArrayOutputStream()
+
+        when: "the categories are streamed as NDJSON"
+        categoryServiceHandler.prepareCategoriesAsNdjson().write(outputStream)
+
+        then: "each line holds exactly one category with no separator before it"
+        outputStream.toString(StandardCharsets.UTF_8) ==
+                '{"id":1,"name":"Books","baseId":null,"picture":"books.jpg"}\n' +
+                '{"id":2,"name":"Fiction","baseId":1,"picture":"fiction.jpg"}\n' +
+                '{"id":3,"name":"Poetry","baseId":1,"picture":"poetry.jpg"}\n'
     }
 
     def "createCategory() method must save all categories and call cache service"() {
@@ -101,26 +434,53 @@ class CategoryServiceTest extends Specification {
         CATEGORY_MAPPER.mapBaseCategoryDetailToListCategoryEntity(_) >> [baseCategoryEntity]
         CATEGORY_MAPPER.mapSubCategoryDetailToListCategoryEntity(_) >> [subCategoryEntity]
 
+        and: "the parent of the sub-category already has a path"
+        categoryRepository.findAllById([1L]) >> [new CategoryEntity(id: 1L, path: "/1/")]
+
+        and: "ids are reserved up front"
+        categoryRepository.reserveId(baseCategoryEntity) >> 10L
+        categoryRepository.reserveId(subCategoryEntity) >> 11L
+
         when: "createCategory is called"
         categoryServiceHandler.createCategory(categoryRequest)
 
-        then: "categoryRepository.saveAll is called with all mapped categories"
-        1 * categoryRepository.saveAll([baseCategoryEntity, subCategoryEntity])
+        then: "each category is inserted once with its materialized path"
+        1 * categoryRepository.insert({ it.is(baseCategoryEntity) && it.path == "/10/" })
+        1 * categoryRepository.insert({ it.is(subCategoryEntity) && it.path == "/1/11/" })
+        0 * categoryRepository.saveAll(_)
+
+        and: "the saved categories are published as a cache delta instead of touching the cache in the transaction"
+        1 * applicationEventPublisher.publishEvent({ CategoryCacheRefreshEvent event ->
+            event.upserts == [baseCategoryEntity, subCategoryEntity] && event.removedIds.isEmpty() && !event.fullRebuild
+        })
+        0 * cacheServiceHandler.applyCacheDelta(*_)
+        0 * cacheServiceHandler.saveCategoriesToCache()
+    }
+
+    def "createCategory() method should throw NotFoundException when the base category does not exist"() {
+        given: "a sub-category whose base is missing"
+        def categoryRequest = new CategoryRequest(categories: [new CategoryRequest.CategoryDetail(name: "Sub Category", baseId: 99L)])
+        categoryRepository.findAllById([99L]) >> []
 
-        and: "cacheServiceHandler.saveCategoriesToCache is called"
-        1 * cacheServiceHandler.saveCategoriesToCache()
+        when: "createCategory is called"
+        categoryServiceHandler.createCategory(categoryRequest)
+
+        then: "nothing is inserted"
+        thrown(NotFoundException)
+        0 * categoryRepository.insert(_)
+        0 * applicationEventPublisher.publishEvent(_)
     }
 
     def "updateCategory() method must update category and call cache service"() {
         given: "an existing category entity and a CategoryUpdateRequest"
         def categoryId = random.nextObject(Long)
         def categoryUpdateRequest = new CategoryUpdateRequest(name: "Updated Category", baseId: 2L, picture: "updated-pic.png")
-        def existingCategory = new CategoryEntity(id: categoryId, name: "Old Category", baseId: null, picture: "old-pic.png")
-        def baseCategory = new CategoryEntity(id: 2L, name: "Base Category", baseId: null, picture: "base-pic.png")
+        def existingCategory = new CategoryEntity(id: categoryId, name: "Old Category", baseId: null, picture: "old-pic.png", path: "/$categoryId/")
+        def baseCategory = new CategoryEntity(id: 2L, name: "Base Category", baseId: null, picture: "base-pic.png", path: "/2/")
 
-        and: "fetchCategoryEntityIfExist returns the existing category and base category"
-        categoryRepository.findById(categoryId) >> Optional.of(existingCategory)
-        categoryRepository.findById(categoryUpdateRequest.baseId) >> Optional.of(baseCategory)
+        and: "the category and its new base are loaded in one round trip"
+        1 * categoryRepository.findAllById([categoryId, categoryUpdateRequest.baseId]) >> [existingCategory, baseCategory]
+        0 * categoryRepository.findById(_)
 
         when: "updateCategory is called"
         categoryServiceHandler.updateCategory(categoryId, categoryUpdateRequest)
@@ -133,8 +493,36 @@ class CategoryServiceTest extends Specification {
         and: "categoryRepository.save is called with the updated category entity"
         1 * categoryRepository.save(existingCategory)
 
-        and: "cacheServiceHandler.saveCategoriesToCache is called to update the cache"
-        1 * cacheServiceHandler.saveCategoriesToCache()
+        and: "the paths of the moved subtree are rewritten in one statement"
+        existingCategory.path == "/2/$categoryId/"
+        1 * categoryRepository.movePath("/$categoryId/", "/2/$categoryId/")
+
+        and: "the change is appended to the change log"
+        1 * categoryChangeServiceHandler.recordUpserts([categoryId])
+
+        and: "the updated category is published as a cache delta"
+        1 * applicationEventPublisher.publishEvent({ CategoryCacheRefreshEvent event ->
+            event.upserts == [existingCategory] && event.removedIds.isEmpty()
+        })
+        0 * cacheServiceHandler.applyCacheDelta(*_)
+    }
+
+    def "updateCategory() method should throw CategoryCycleException when moving a category under its descendant"() {
+        given: "a category and one of its descendants"
+        def categoryUpdateRequest = new CategoryUpdateRequest(name: "Books", baseId: 3L, picture: "books.jpg")
+        categoryRepository.findAllById([1L, 3L]) >> [
+                new CategoryEntity(id: 1L, name: "Books", baseId: null, path: "/1/"),
+                new CategoryEntity(id: 3L, name: "Mystery", baseId: 2L, path: "/1/2/3/")
+        ]
+
+        when: "updateCategory moves the category under its descendant"
+        categoryServiceHandler.updateCategory(1L, categoryUpdateRequest)
+
+        then: "a CategoryCycleException is thrown and nothing is written"
+        thrown(CategoryCycleException)
+        0 * categoryRepository.save(_)
+        0 * categoryRepository.movePath(_, _)
+        0 * applicationEventPublisher.publishEvent(_)
     }
 
     def "updateCategory() method should throw NotFoundException if category does not exist"() {
@@ -142,14 +530,15 @@ class CategoryServiceTest extends Specification {
         def nonExistentCategoryId = random.nextObject(Long)
         def categoryUpdateRequest = new CategoryUpdateRequest(name: "Updated Category", baseId: 2L, picture: "updated-pic.png")
 
-        and: "categoryRepository.findById returns empty for the non-existent ID"
-        categoryRepository.findById(nonExistentCategoryId) >> Optional.empty()
+        and: "categoryRepository.findAllById only returns the base category"
+        categoryRepository.findAllById([nonExistentCategoryId, 2L]) >> [new CategoryEntity(id: 2L, name: "Base Category")]
 
         when: "updateCategory is called with the non-existent ID"
         categoryServiceHandler.updateCategory(nonExistentCategoryId, categoryUpdateRequest)
 
-        then: "a NotFoundException is thrown"
-        thrown(NotFoundException)
+        then: "a NotFoundException is thrown for the missing category"
+        def exception = thrown(NotFoundException)
+        exception.message == "Category not found for id: $nonExistentCategoryId"
     }
 
     def "updateCategory() method should throw NotFoundException if base category does not exist"() {
@@ -158,50 +547,117 @@ class CategoryServiceTest extends Specification {
         def categoryUpdateRequest = new CategoryUpdateRequest(name: "Updated Category", baseId: 999L, picture: "updated-pic.png")
         def existingCategory = new CategoryEntity(id: categoryId, name: "Old Category", baseId: null, picture: "old-pic.png")
 
-        and: "fetchCategoryEntityIfExist returns the existing category"
-        categoryRepository.findById(categoryId) >> Optional.of(existingCategory)
-
-        and: "categoryRepository.findById returns empty for the non-existent base ID"
-        categoryRepository.findById(categoryUpdateRequest.baseId) >> Optional.empty()
+        and: "categoryRepository.findAllById only returns the existing category"
+        categoryRepository.findAllById([categoryId, categoryUpdateRequest.baseId]) >> [existingCategory]
 
         when: "updateCategory is called"
         categoryServiceHandler.updateCategory(categoryId, categoryUpdateRequest)
 
         then: "a NotFoundException is thrown for the base category"
-        thrown(NotFoundException)
+        def exception = thrown(NotFoundException)
+        exception.message == "Category not found for id: 999"
+        0 * categoryRepository.save(_)
+    }
+
+    def "updateCategories() method must move nested categories and rewrite their subtrees in one statement"() {
+        given: "a tree where 2 is moved under 5 and 3 is moved under 2"
+        def categories = [
+                new CategoryEntity(id: 2L, name: "Fiction", baseId: 1L, picture: "fiction.jpg", path: "/1/2/"),
+                new CategoryEntity(id: 3L, name: "Mystery", baseId: 1L, picture: "mystery.jpg", path: "/1/3/"),
+                new CategoryEntity(id: 5L, name: "Media", baseId: null, picture: "media.jpg", path: "/5/")
+        ]
+        def categoryDetails = [
+                new CategoryBatchUpdateDetail(2L, "Novels", 5L, "novels.jpg"),
+                new CategoryBatchUpdateDetail(3L, "Mystery", 2L, "mystery.jpg")
+        ]
+
+        and: "the batch and its new bases are loaded in one round trip"
+        1 * categoryRepository.findAllById([2L, 3L, 5L]) >> categories
+
+        when: "updateCategories is called"
+        categoryServiceHandler.updateCategories(categoryDetails)
+
+        then: "both categories are saved in one batch with their final paths"
+        1 * categoryRepository.saveAll({ it*.id == [2L, 3L] })
+        categories[0].name == "Novels"
+        categories[0].path == "/5/2/"
+        categories[1].baseId == 2L
+        categories[1].path == "/5/2/3/"
+
+        and: "the paths of the moved subtrees are rewritten in one statement"
+        1 * categoryRepository.movePaths("/1/2/,/1/3/", "/5/2/,/5/2/3/")
+        0 * categoryRepository.movePath(*_)
+
+        and: "the batch is recorded and published once"
+        1 * categoryChangeServiceHandler.recordUpserts([2L, 3L])
+        1 * applicationEventPublisher.publishEvent({ CategoryCacheRefreshEvent event ->
+            event.upserts*.id == [2L, 3L] && event.removedIds.isEmpty()
+        })
+    }
+
+    def "updateCategories() method should throw CategoryCycleException when the batch moves categories under each other"() {
+        given: "two sibling categories moved under each other"
+        categoryRepository.findAllById([2L, 3L]) >> [
+                new CategoryEntity(id: 2L, name: "Fiction", baseId: 1L, path: "/1/2/"),
+                new CategoryEntity(id: 3L, name: "Mystery", baseId: 1L, path: "/1/3/")
+        ]
+        def categoryDetails = [
+                new CategoryBatchUpdateDetail(2L, "Fiction", 3L, "fiction.jpg"),
+                new CategoryBatchUpdateDetail(3L, "Mystery", 2L, "mystery.jpg")
+        ]
+
+        when: "updateCategories is called"
+        categoryServiceHandler.updateCategories(categoryDetails)
+
+        then: "a CategoryCycleException is thrown and nothing is written"
+        def exception = thrown(CategoryCycleException)
+        exception.message == "Moving categories [2, 3] would create a cycle"
+        0 * categoryRepository.saveAll(_)
+        0 * categoryRepository.movePaths(_, _)
+        0 * applicationEventPublisher.publishEvent(_)
+    }
+
+    def "updateCategories() method should throw InvalidCategoryBatchException for a duplicate category id"() {
+        given: "a batch that updates the same category twice"
+        def categoryDetails = [
+                new CategoryBatchUpdateDetail(2L, "Fiction", null, "fiction.jpg"),
+                new CategoryBatchUpdateDetail(2L, "Novels", null, "novels.jpg")
+        ]
+
+        when: "updateCategories is called"
+        categoryServiceHandler.updateCategories(categoryDetails)
+
+        then: "an InvalidCategoryBatchException is thrown before anything is loaded"
+        def exception = thrown(InvalidCategoryBatchException)
+        exception.message == "Duplicate category id in batch: 2"
+        0 * categoryRepository.findAllById(_)
     }
 
-    def "deleteCategory() method must delete a base category and all its subcategories"() {
-        given: "a base category with subcategories"
+    def "deleteCategory() method must soft-delete the whole subtree in one statement"() {
+        given: "a base category"
         def categoryId = 1L
         def baseCategory = new CategoryEntity(id: categoryId, name: "Base Category", baseId: null, status: CategoryStatus.ACTIVE)
-        def subCategory1 = new CategoryEntity(id: 2L, name: "Sub Category 1", baseId: categoryId, status: CategoryStatus.ACTIVE)
-        def subCategory2 = new CategoryEntity(id: 3L, name: "Sub Category 2", baseId: categoryId, status: CategoryStatus.ACTIVE)
 
-        and: "fetchCategoryEntityIfExist returns the base category"
-        categoryRepository.findById(categoryId) >> Optional.of(baseCategory)
-
-        and: "findByBaseId returns subcategories"
-        categoryRepository.findByBaseId(categoryId) >> [subCategory1, subCategory2]
+        and: "the category is served from the per-id cache"
+        cacheServiceHandler.getCategoryFromCache(categoryId) >> baseCategory
 
         when: "deleteCategory is called"
         categoryServiceHandler.deleteCategory(categoryId)
 
-        then: "the base category and subcategories are marked as deleted"
-        baseCategory.status == CategoryStatus.DELETED
-        subCategory1.status == CategoryStatus.DELETED
-        subCategory2.status == CategoryStatus.DELETED
-
-        and: "categoryRepository.saveAll is called with updated entities"
-        1 * categoryRepository.saveAll({ List<CategoryEntity> entities ->
-            entities.size() == 3 &&
-                    entities.any { it.id == baseCategory.id && it.status == CategoryStatus.DELETED } &&
-                    entities.any { it.id == subCategory1.id && it.status == CategoryStatus.DELETED } &&
-                    entities.any { it.id == subCategory2.id && it.status == CategoryStatus.DELETED }
-        })
+        then: "the subtree is soft-deleted with a single recursive update"
+        1 * categoryRepository.softDeleteSubtree(categoryId) >> [1L, 2L, 3L]
+        0 * categoryRepository.findById(_)
+        0 * categoryRepository.findByBaseId(_)
+        0 * categoryRepository.saveAll(_)
 
-        and: "cacheServiceHandler.saveCategoriesToCache is called"
-        1 * cacheServiceHandler.saveCategoriesToCache()
+        and: "every deleted id is appended to the change log"
+        1 * categoryChangeServiceHandler.recordDeletes([1L, 2L, 3L])
+
+        and: "the affected ids are published as cache removals"
+        1 * applicationEventPublisher.publishEvent({ CategoryCacheRefreshEvent event ->
+            event.upserts.isEmpty() && event.removedIds == [1L, 2L, 3L]
+        })
+        0 * cacheServiceHandler.applyCacheDelta(*_)
     }
 
     def "deleteCategory() method should throw CannotDeleteSubCategoryException if trying to delete a subcategory"() {
@@ -209,21 +665,42 @@ class CategoryServiceTest extends Specification {
         def categoryId = 2L
         def subCategory = new CategoryEntity(id: categoryId, name: "Sub Category", baseId: 1L, status: CategoryStatus.ACTIVE)
 
-        and: "fetchCategoryEntityIfExist returns the subcategory"
-        categoryRepository.findById(categoryId) >> Optional.of(subCategory)
+        and: "the subcategory is served from the per-id cache"
+        cacheServiceHandler.getCategoryFromCache(categoryId) >> subCategory
 
         when: "deleteCategory is called on a subcategory"
         categoryServiceHandler.deleteCategory(categoryId)
 
-        then: "CannotDeleteSubCategoryException is thrown"
+        then: "CannotDeleteSubCategoryException is thrown without touching the database"
         thrown(CannotDeleteSubCategoryException)
+        0 * categoryRepository.softDeleteSubtree(_)
+        0 * categoryRepository.findById(_)
+    }
+
+    def "deleteCategory() method should fall back to the database when the category is not cached"() {
+        given: "a subcategory that is missing from the cache"
+        def categoryId = 2L
+        cacheServiceHandler.getCategoryFromCache(categoryId) >> null
+
+        and: "the guarded soft delete matches no root category"
+        categoryRepository.softDeleteSubtree(categoryId) >> []
+        categoryRepository.findById(categoryId) >> Optional.of(new CategoryEntity(id: categoryId, name: "Sub Category", baseId: 1L))
+
+        when: "deleteCategory is called"
+        categoryServiceHandler.deleteCategory(categoryId)
+
+        then: "CannotDeleteSubCategoryException is thrown and nothing is published"
+        thrown(CannotDeleteSubCategoryException)
+        0 * categoryChangeServiceHandler.recordDeletes(_)
+        0 * applicationEventPublisher.publishEvent(_)
     }
 
     def "deleteCategory() method should throw NotFoundException if category does not exist"() {
         given: "a non-existent category ID"
         def nonExistentCategoryId = 999L
 
-        and: "categoryRepository.findById returns empty"
+        and: "nothing is cached or deleted for the ID"
+        categoryRepository.softDeleteSubtree(nonExistentCategoryId) >> []
         categoryRepository.findById(nonExistentCategoryId) >> Optional.empty()
 
         when: "deleteCategory is called with a non-existent ID"
@@ -232,4 +709,8 @@ class CategoryServiceTest extends Specification {
         then: "NotFoundException is thrown"
         thrown(NotFoundException)
     }
+
+    private static CachedCategories cached(List<CategoryEntity> categories) {
+        new CachedCategories(categories, null)
+    }
 }
@@ -0,0 +1,59 @@
+package com.company.mscategory.util.cache
+
+import com.company.mscategory.dao.entity.CategoryEntity
+import com.company.mscategory.model.enums.CategoryStatus
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.ScheduledExecutorService
+
+class LocalSnapshotStoreTest extends Specification {
+    @TempDir
+    Path directory
+
+    ScheduledExecutorService executor = Mock() {
+        execute(_ as Runnable) >> { Runnable task -> task.run() }
+    }
+
+    def "a persisted snapshot must be readable by a freshly started node"() {
+        given: "a snapshot written by one node"
+        def snapshotPath = directory.resolve("categories.snapshot")
+        def categories = [
+                new CategoryEntity(id: 1L, name: "Books", baseId: null, picture: "books.jpg", status: CategoryStatus.ACTIVE),
+                new CategoryEntity(id: 2L, name: "Fiction", baseId: 1L, picture: "fiction.jpg", status: CategoryStatus.ACTIVE)
+        ]
+        new LocalSnapshotStore(snapshotPath, executor).persist(categories, 5L)
+
+        when: "another store loads the file"
+        def snapshot = new LocalSnapshotStore(snapshotPath, executor).load()
+
+        then: "the categories and version survive the restart"
+        Files.exists(snapshotPath)
+        snapshot.version == 5L
+        snapshot.savedAt != null
+        snapshot.categories*.id == [1L, 2L]
+        snapshot.categories*.baseId == [null, 1L]
+        snapshot.categories*.name == ["Books", "Fiction"]
+    }
+
+    def "warmUp() must read the snapshot at startup so a later file change is not picked up"() {
+        given: "a snapshot on disk"
+        def snapshotPath = directory.resolve("categories.snapshot")
+        new LocalSnapshotStore(snapshotPath, executor).persist([new CategoryEntity(id: 1L, name: "Books", baseId: null)], 5L)
+
+        when: "a restarted node warms up before the file goes away"
+        def store = new LocalSnapshotStore(snapshotPath, executor)
+        store.warmUp()
+        Files.delete(snapshotPath)
+
+        then: "the snapshot is already in memory"
+        store.load().version == 5L
+    }
+
+    def "load() must return null when no snapshot was ever written"() {
+        expect:
+        new LocalSnapshotStore(directory.resolve("missing.snapshot"), executor).load() == null
+    }
+}
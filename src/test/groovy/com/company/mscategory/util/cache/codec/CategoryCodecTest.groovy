@@ -0,0 +1,65 @@
+package com.company.mscategory.util.cache.codec
+
+import com.company.mscategory.dao.entity.CategoryEntity
+import com.company.mscategory.model.enums.CategoryStatus
+import com.company.mscategory.util.metrics.CategoryMetrics
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.redisson.codec.SerializationCodec
+import spock.lang.Specification
+
+import java.time.LocalDateTime
+
+import static com.company.mscategory.util.metrics.MetricsConstraints.CACHE_PAYLOAD_METRIC
+
+class CategoryCodecTest extends Specification {
+    CategoryCodec codec = CategoryCodec.INSTANCE
+
+    def "encoded categories must decode back to the fields the tree needs"() {
+        given: "categories with base and sub categories"
+        def categories = [
+                new CategoryEntity(id: 1L, name: "Electronics", baseId: null, picture: "electronics.jpg", status: CategoryStatus.ACTIVE, createdAt: LocalDateTime.now()),
+                new CategoryEntity(id: 300L, name: "Téléphones", baseId: 1L, picture: null, status: null)
+        ]
+
+        when: "the categories are encoded and decoded"
+        def buffer = codec.valueEncoder.encode(categories)
+        List<CategoryEntity> decoded = codec.valueDecoder.decode(buffer, null)
+
+        then: "id, baseId, name, picture and status survive the round trip"
+        decoded.size() == 2
+        decoded[0].id == 1L && decoded[0].baseId == null && decoded[0].name == "Electronics"
+        decoded[0].picture == "electronics.jpg" && decoded[0].status == CategoryStatus.ACTIVE
+        decoded[0].createdAt == null
+        decoded[1].id == 300L && decoded[1].baseId == 1L && decoded[1].name == "Téléphones"
+        decoded[1].picture == null && decoded[1].status == null
+    }
+
+    def "payload sizes must be recorded in the injected registry"() {
+        given: "a codec bound to a local registry"
+        def meterRegistry = new SimpleMeterRegistry()
+        def meteredCodec = new CategoryCodec(new CategoryMetrics(meterRegistry))
+        def categories = [new CategoryEntity(id: 1L, name: "Books", baseId: null)]
+
+        when: "a payload is written and read back"
+        def buffer = meteredCodec.valueEncoder.encode(categories)
+        def written = buffer.readableBytes()
+        meteredCodec.valueDecoder.decode(buffer, null)
+
+        then: "both directions are recorded with the payload size"
+        meterRegistry.get(CACHE_PAYLOAD_METRIC).tag("direction", "write").summary().totalAmount() == written
+        meterRegistry.get(CACHE_PAYLOAD_METRIC).tag("direction", "read").summary().totalAmount() == written
+    }
+
+    def "entries in any other format must be rejected instead of deserialized"() {
+        given: "categories written with SerializationCodec"
+        def categories = [new CategoryEntity(id: 1L, name: "Books", baseId: null, picture: "books.jpg", status: CategoryStatus.ACTIVE)]
+        def buffer = new SerializationCodec().valueEncoder.encode(categories)
+
+        when: "the entry is decoded with CategoryCodec"
+        codec.valueDecoder.decode(buffer, null)
+
+        then: "the payload is rejected without running Java deserialization"
+        def ex = thrown(IOException)
+        ex.message.startsWith("Unknown category cache format")
+    }
+}
@@ -0,0 +1,90 @@
+package com.company.mscategory.util.datasource
+
+import com.company.mscategory.util.metrics.CategoryMetrics
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.jdbc.datasource.DataSourceTransactionManager
+import org.springframework.jdbc.datasource.DriverManagerDataSource
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy
+import org.springframework.transaction.support.TransactionTemplate
+import spock.lang.Specification
+
+import javax.sql.DataSource
+import java.time.Duration
+
+import static com.company.mscategory.util.metrics.MetricsConstraints.DATASOURCE_REPLICA_LAG_METRIC
+import static com.company.mscategory.util.metrics.MetricsConstraints.DATASOURCE_ROUTE_METRIC
+
+class ReadWriteRoutingDataSourceTest extends Specification {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+    DataSource primary = database("primary")
+    DataSource replica = database("replica")
+
+    def "read-only transactions must be served by an up to date replica"() {
+        given: "a replica that reports no lag"
+        def routing = routingDataSource(replica, Duration.ZERO, "SELECT 0")
+        routing.checkReplicaLag()
+
+        expect: "reads go to the replica and writes to the primary"
+        read(routing, true) == "replica"
+        read(routing, false) == "primary"
+
+        and: "routes and replica lag are exposed as metrics"
+        meterRegistry.counter(DATASOURCE_ROUTE_METRIC, "route", "replica-0").count() == 1
+        meterRegistry.get(DATASOURCE_REPLICA_LAG_METRIC).tag("route", "replica-0").gauge().value() == 0
+    }
+
+    def "read-only transactions must stay on the primary right after a write"() {
+        given: "a routing data source with a read-your-writes window"
+        def routing = routingDataSource(replica, Duration.ofMinutes(1), "SELECT 0")
+        routing.checkReplicaLag()
+
+        when: "a write transaction commits"
+        read(routing, false)
+
+        then: "the following reads are served by the primary"
+        read(routing, true) == "primary"
+    }
+
+    def "read-only transactions must fall back to the primary when the replica is #description"() {
+        given: "a routing data source over that replica"
+        def routing = routingDataSource(replicaDataSource, Duration.ZERO, lagQuery)
+        if (checked) {
+            routing.checkReplicaLag()
+        }
+
+        expect: "reads are served by the primary"
+        read(routing, true) == "primary"
+
+        where:
+        description       | replicaDataSource                                                  | lagQuery       | checked
+        "lagging"         | database("lagging")                                                | "SELECT 60000" | true
+        "unreachable"     | new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/missing")   | "SELECT 0"     | true
+        "not checked yet" | database("unchecked")                                              | "SELECT 0"     | false
+    }
+
+    private ReadWriteRoutingDataSource routingDataSource(DataSource replicaDataSource, Duration readYourWritesWindow,
+                                                         String lagQuery) {
+        def routing = new ReadWriteRoutingDataSource(primary, ["replica-0": replicaDataSource], readYourWritesWindow,
+                Duration.ofSeconds(2), lagQuery, new CategoryMetrics(meterRegistry))
+        routing.afterPropertiesSet()
+        routing
+    }
+
+    private static String read(ReadWriteRoutingDataSource routing, boolean readOnly) {
+        def dataSource = new LazyConnectionDataSourceProxy(routing)
+        def transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource))
+        transactionTemplate.readOnly = readOnly
+        transactionTemplate.execute {
+            new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String)
+        }
+    }
+
+    private static DataSource database(String name) {
+        def dataSource = new DriverManagerDataSource("jdbc:h2:mem:${name}-${UUID.randomUUID()};DB_CLOSE_DELAY=-1".toString(), "sa", "")
+        def jdbcTemplate = new JdbcTemplate(dataSource)
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(16))")
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name)
+        dataSource
+    }
+}
@@ -0,0 +1,50 @@
+package com.company.mscategory.util.imports
+
+import com.company.mscategory.exception.InvalidCategoryImportException
+import spock.lang.Specification
+
+class CategoryCsvReaderTest extends Specification {
+    def "readImportDetails must keep commas, escaped quotes and line breaks inside quoted fields"() {
+        given: "a CSV with quoted fields spanning lines"
+        def csv = 'key,parentKey,baseId,name,picture\r\n' +
+                'books,,,"Books, ""Paper""",books.jpg\r\n' +
+                'fiction,books,,"Fiction\nNovels",fiction.jpg\r\n'
+
+        when: "the CSV is read"
+        def result = CategoryCsvReader.readImportDetails(new StringReader(csv))
+
+        then: "each record keeps its quoted content"
+        result*.key == ["books", "fiction"]
+        result*.name == ['Books, "Paper"', "Fiction\nNovels"]
+        result*.parentKey == [null, "books"]
+        result*.picture == ["books.jpg", "fiction.jpg"]
+    }
+
+    def "readImportDetails must skip blank lines and report errors at the physical line of the record"() {
+        given: "a CSV whose third record is missing its name after a multi-line field"
+        def csv = 'key,name,picture\n\n' +
+                'books,"Books\nand more",books.jpg\n' +
+                'fiction,,fiction.jpg\n'
+
+        when: "the CSV is read"
+        CategoryCsvReader.readImportDetails(new StringReader(csv))
+
+        then: "the error points at line 5"
+        def ex = thrown(InvalidCategoryImportException)
+        ex.message == "Invalid category import CSV at line 5: name is blank"
+    }
+
+    def "readImportDetails must reject an unterminated quote"() {
+        when: "a quoted field never closes"
+        CategoryCsvReader.readImportDetails(new StringReader('key,name,picture\nbooks,"Books,books.jpg\n'))
+
+        then: "the import is rejected"
+        def ex = thrown(InvalidCategoryImportException)
+        ex.message == "Invalid category import CSV at line 2: unterminated quote"
+    }
+
+    def "readImportDetails must return nothing for an empty file"() {
+        expect: "no import details"
+        CategoryCsvReader.readImportDetails(new StringReader("")) == []
+    }
+}
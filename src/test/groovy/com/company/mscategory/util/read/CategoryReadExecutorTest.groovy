@@ -0,0 +1,104 @@
+package com.company.mscategory.util.read
+
+import com.company.mscategory.exception.CategoryReadUnavailableException
+import com.company.mscategory.util.metrics.CategoryMetrics
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+
+class CategoryReadExecutorTest extends Specification {
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+    private CategoryReadExecutor categoryReadExecutor
+
+    void cleanup() {
+        categoryReadExecutor?.shutdown()
+    }
+
+    def "read() method must run the reader on a read pool thread"() {
+        given:
+        categoryReadExecutor = readExecutor(true, 1, Duration.ofSeconds(5))
+
+        when:
+        def threadName = categoryReadExecutor.read { Thread.currentThread().name }.get(5, TimeUnit.SECONDS)
+
+        then:
+        threadName.startsWith(ReadConstraints.READ_THREAD_PREFIX)
+    }
+
+    def "read() method must run the reader inline when async is disabled"() {
+        given:
+        categoryReadExecutor = readExecutor(false, 1, Duration.ofSeconds(5))
+
+        when:
+        def future = categoryReadExecutor.read { Thread.currentThread().name }
+
+        then:
+        future.isDone()
+        future.get() == Thread.currentThread().name
+    }
+
+    def "read() method must fail with CategoryReadUnavailableException when the reader is too slow"() {
+        given:
+        categoryReadExecutor = readExecutor(true, 1, Duration.ofMillis(50))
+        def release = new CountDownLatch(1)
+
+        when:
+        categoryReadExecutor.read { release.await(5, TimeUnit.SECONDS) }.get(5, TimeUnit.SECONDS)
+
+        then:
+        def ex = thrown(ExecutionException)
+        ex.cause instanceof CategoryReadUnavailableException
+        meterRegistry.get("ms-category.read.rejections").tag("reason", "timeout").counter().count() == 1
+
+        cleanup:
+        release.countDown()
+    }
+
+    def "read() method must interrupt the reader that timed out so its thread is freed"() {
+        given:
+        categoryReadExecutor = readExecutor(true, 1, Duration.ofMillis(50))
+        def interrupted = new CountDownLatch(1)
+
+        when:
+        categoryReadExecutor.read {
+            try {
+                new CountDownLatch(1).await(5, TimeUnit.SECONDS)
+            } catch (InterruptedException ignored) {
+                interrupted.countDown()
+            }
+        }
+        def threadFreed = interrupted.await(5, TimeUnit.SECONDS)
+
+        then:
+        threadFreed
+        categoryReadExecutor.read { "next" }.get(5, TimeUnit.SECONDS) == "next"
+    }
+
+    def "read() method must reject immediately when the queue is full"() {
+        given: "one busy worker and one queued read"
+        categoryReadExecutor = readExecutor(true, 1, Duration.ofSeconds(5))
+        def started = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+        categoryReadExecutor.read { started.countDown(); release.await(5, TimeUnit.SECONDS) }
+        started.await(5, TimeUnit.SECONDS)
+        categoryReadExecutor.read { release.await(5, TimeUnit.SECONDS) }
+
+        when:
+        categoryReadExecutor.read { "late" }
+
+        then:
+        thrown(CategoryReadUnavailableException)
+        meterRegistry.get("ms-category.read.rejections").tag("reason", "queue-full").counter().count() == 1
+
+        cleanup:
+        release.countDown()
+    }
+
+    private CategoryReadExecutor readExecutor(boolean async, int queueCapacity, Duration timeout) {
+        new CategoryReadExecutor(async, 1, queueCapacity, timeout, new CategoryMetrics(meterRegistry))
+    }
+}
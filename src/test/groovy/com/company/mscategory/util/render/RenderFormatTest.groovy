@@ -0,0 +1,21 @@
+package com.company.mscategory.util.render
+
+import spock.lang.Specification
+
+class RenderFormatTest extends Specification {
+
+    def "fromAccept() must pick the most preferred supported format"() {
+        expect: "the negotiated format for each Accept header"
+        RenderFormat.fromAccept(accept) == format
+
+        where:
+        accept                                                  || format
+        null                                                    || RenderFormat.JSON
+        "*/*"                                                   || RenderFormat.JSON
+        "application/cbor"                                      || RenderFormat.CBOR
+        "application/json;q=0.5, application/x-jackson-smile"   || RenderFormat.SMILE
+        "application/cbor;q=0, application/json"                || RenderFormat.JSON
+        "text/html, application/xml"                            || RenderFormat.JSON
+        "not a media type"                                      || RenderFormat.JSON
+    }
+}
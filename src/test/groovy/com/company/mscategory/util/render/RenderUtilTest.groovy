@@ -0,0 +1,23 @@
+package com.company.mscategory.util.render
+
+import spock.lang.Specification
+
+class RenderUtilTest extends Specification {
+
+    def "acceptsGzip() must honour the quality values of Accept-Encoding"() {
+        expect: "gzip is chosen only when the client accepts it with a positive quality"
+        RenderUtil.acceptsGzip(acceptEncoding) == accepted
+
+        where:
+        acceptEncoding             || accepted
+        null                       || false
+        "gzip, deflate, br"        || true
+        "GZIP;Q=0.8"               || true
+        "gzip;q=0"                 || false
+        "gzip;q=0.0, br"           || false
+        "br, *;q=0.5"              || true
+        "*;q=0.5, gzip;q=0"        || false
+        "identity"                 || false
+        "gzip;q=oops"              || false
+    }
+}
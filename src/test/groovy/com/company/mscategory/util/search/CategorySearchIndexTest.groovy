@@ -0,0 +1,50 @@
+package com.company.mscategory.util.search
+
+import com.company.mscategory.dao.entity.CategoryEntity
+import com.company.mscategory.util.tree.CategorySnapshot
+import spock.lang.Specification
+
+class CategorySearchIndexTest extends Specification {
+    CategorySnapshot snapshot = CategorySnapshot.build([
+            new CategoryEntity(id: 1L, name: "Électronique", baseId: null),
+            new CategoryEntity(id: 2L, name: "Téléphones mobiles", baseId: 1L),
+            new CategoryEntity(id: 3L, name: "Smartphones", baseId: 2L),
+            new CategoryEntity(id: 4L, name: "Books", baseId: null)
+    ])
+    CategorySearchIndex searchIndex = CategorySearchIndex.build(snapshot)
+
+    def "search must match name prefixes ignoring case and diacritics"() {
+        when: "searching with an unaccented lower case prefix"
+        def result = ids(searchIndex.search("ELEC", 10))
+
+        then: "the accented category is found"
+        result == [1L]
+    }
+
+    def "search must match the start of any word in the name"() {
+        when: "searching for the second word"
+        def result = ids(searchIndex.search("mob", 10))
+
+        then: "the category is found"
+        result == [2L]
+    }
+
+    def "search must fall back to infix matches"() {
+        when: "searching for a fragment inside a word"
+        def result = ids(searchIndex.search("phone", 10))
+
+        then: "every category containing the fragment is found"
+        result == [2L, 3L]
+    }
+
+    def "search must honour the limit and ignore blank queries"() {
+        expect:
+        ids(searchIndex.search("phone", 1)) == [2L]
+        searchIndex.search("  ", 10).length == 0
+        searchIndex.search("xyz", 10).length == 0
+    }
+
+    private List<Long> ids(int[] nodes) {
+        nodes.collect { snapshot.getId(it) }
+    }
+}
@@ -0,0 +1,67 @@
+package com.company.mscategory.util.tree
+
+import com.company.mscategory.dao.entity.CategoryEntity
+import com.company.mscategory.model.enums.CategoryStatus
+import spock.lang.Specification
+
+import static com.company.mscategory.util.tree.TreeConstraints.NO_NODE
+
+class CategorySnapshotTest extends Specification {
+
+    def "build() method must lay out children contiguously in input order"() {
+        given: "a hierarchy listed children first"
+        def snapshot = CategorySnapshot.build([
+                new CategoryEntity(id: 30L, name: "Mystery", baseId: 20L),
+                new CategoryEntity(id: 20L, name: "Fiction", baseId: 10L),
+                new CategoryEntity(id: 40L, name: "Poetry", baseId: 10L),
+                new CategoryEntity(id: 10L, name: "Books", baseId: null)
+        ])
+        def books = snapshot.indexOf(10L)
+
+        expect: "ids are found by binary search and children follow the input order"
+        snapshot.size() == 4
+        snapshot.getRootCount() == 1
+        snapshot.getRoot(0) == books
+        (0..<snapshot.getChildCount(books)).collect { snapshot.getId(snapshot.getChild(books, it)) } == [20L, 40L]
+        snapshot.getParent(snapshot.indexOf(30L)) == snapshot.indexOf(20L)
+        snapshot.getSubtreeSize(books) == 4
+        snapshot.indexOf(99L) == NO_NODE
+
+        and: "roots carry no base id"
+        !snapshot.hasBaseId(books)
+        snapshot.getBaseId(snapshot.indexOf(30L)) == 20L
+    }
+
+    def "build() method must skip deleted categories and share equal strings"() {
+        given: "two categories with equal but distinct picture strings and a deleted one"
+        def snapshot = CategorySnapshot.build([
+                new CategoryEntity(id: 1L, name: "Books", baseId: null, picture: new String("default.jpg")),
+                new CategoryEntity(id: 2L, name: "Toys", baseId: null, picture: new String("default.jpg")),
+                new CategoryEntity(id: 3L, name: "Old", baseId: null, status: CategoryStatus.DELETED)
+        ])
+
+        expect: "the deleted category is absent and the pictures are one instance"
+        snapshot.size() == 2
+        snapshot.indexOf(3L) == NO_NODE
+        snapshot.getPicture(0).is(snapshot.getPicture(1))
+    }
+
+    def "build() method must detach orphans, self references and cycles from the tree"() {
+        given: "an orphan, a self reference and a two category cycle"
+        def snapshot = CategorySnapshot.build([
+                new CategoryEntity(id: 1L, name: "Books", baseId: null),
+                new CategoryEntity(id: 2L, name: "Orphan", baseId: 99L),
+                new CategoryEntity(id: 3L, name: "Loop", baseId: 3L),
+                new CategoryEntity(id: 4L, name: "Ping", baseId: 5L),
+                new CategoryEntity(id: 5L, name: "Pong", baseId: 4L)
+        ])
+
+        expect: "only the real root is a root and every ancestor walk terminates"
+        snapshot.getRootCount() == 1
+        snapshot.getChildCount(snapshot.indexOf(1L)) == 0
+        snapshot.getParent(snapshot.indexOf(2L)) == NO_NODE
+        snapshot.getParent(snapshot.indexOf(3L)) == NO_NODE
+        [4L, 5L].count { snapshot.getParent(snapshot.indexOf(it)) == NO_NODE } == 1
+        snapshot.getSubtreeSize(snapshot.indexOf(4L)) + snapshot.getSubtreeSize(snapshot.indexOf(5L)) == 3
+    }
+}